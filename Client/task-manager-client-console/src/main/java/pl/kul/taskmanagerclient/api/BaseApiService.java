@@ -2,8 +2,11 @@ package pl.kul.taskmanagerclient.api;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -11,20 +14,35 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 public abstract class BaseApiService {
+    protected static final String SMILE_CONTENT_TYPE = "application/x-jackson-smile";
+    // Responses are requested as Smile, JSON stays acceptable for servers without the binary converter
+    protected static final String ACCEPT = SMILE_CONTENT_TYPE + ", application/json;q=0.9";
+
+    // One client for all services: over HTTP/2 (h2c upgrade on the first request) every call is multiplexed
+    // on a single connection instead of each service opening its own
+    protected static final HttpClient SHARED_HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .build();
+
     protected final HttpClient httpClient;
     protected final ObjectMapper objectMapper;
+    protected final ObjectMapper smileMapper;
 
     protected BaseApiService(HttpClient httpClient, ObjectMapper objectMapper) {
         this.httpClient = httpClient;
         this.objectMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
     }
 
     protected HttpRequest createRequest(String url, String path, String method, Object body) throws IOException {
         HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(url + (path != null ? path : "")))
-                .header("Content-Type", "application/json");
+                .header("Content-Type", "application/json")
+                .header("Accept", ACCEPT)
+                .header("Accept-Encoding", "gzip");
 
         if ("POST".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method)) {
             builder.method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
@@ -49,18 +67,51 @@ public abstract class BaseApiService {
     protected <T> T sendRequest(String url, String path, String method, Object body, TypeReference<T> typeReference)
             throws IOException, InterruptedException {
         HttpRequest request = createRequest(url, path, method, body);
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
         return handleResponse(response, typeReference);
     }
 
-    protected <T> T handleResponse(HttpResponse<String> response, TypeReference<T> typeReference) throws IOException {
+    protected <T> T handleResponse(HttpResponse<byte[]> response, TypeReference<T> typeReference) throws IOException {
         if (response.statusCode() >= 200 && response.statusCode() < 300) {
-            if (typeReference == null || response.body() == null || response.body().isEmpty()) {
+            if (typeReference == null || response.body() == null || response.body().length == 0) {
                 return null;
             }
-            return objectMapper.readValue(response.body(), typeReference);
+            try (InputStream body = decodedBody(response)) {
+                return mapperFor(response).readValue(body, typeReference);
+            }
+        }
+        throw new RuntimeException("Unexpected error: " + response.statusCode() + " - " + errorMessage(response));
+    }
+
+    private ObjectMapper mapperFor(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type")
+                .filter(contentType -> contentType.startsWith(SMILE_CONTENT_TYPE))
+                .map(contentType -> smileMapper)
+                .orElse(objectMapper);
+    }
+
+    // Error messages are plain strings, but they are negotiated like any other body and may arrive as Smile
+    private String errorMessage(HttpResponse<byte[]> response) {
+        if (response.body() == null || response.body().length == 0) {
+            return "";
+        }
+        try (InputStream body = decodedBody(response)) {
+            if (mapperFor(response) == smileMapper) {
+                return smileMapper.readValue(body, String.class);
+            }
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "<unreadable response body>";
         }
-        throw new RuntimeException("Unexpected error: " + response.statusCode() + " - " + response.body());
+    }
+
+    // HttpClient does not decompress by itself; the server only gzips responses above its size threshold
+    private InputStream decodedBody(HttpResponse<byte[]> response) throws IOException {
+        InputStream body = new ByteArrayInputStream(response.body());
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+                .filter(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .isPresent();
+        return gzipped ? new GZIPInputStream(body) : body;
     }
 
 }
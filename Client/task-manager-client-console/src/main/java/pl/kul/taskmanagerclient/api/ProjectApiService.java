@@ -15,7 +15,7 @@ public class ProjectApiService extends BaseApiService {
     private static final String BASE_URL = Config.BASE_URL + "/projects";
 
     public ProjectApiService() {
-        this(HttpClient.newHttpClient(), new ObjectMapper().findAndRegisterModules());
+        this(SHARED_HTTP_CLIENT, new ObjectMapper().findAndRegisterModules());
     }
 
     public ProjectApiService(HttpClient httpClient, ObjectMapper objectMapper) {
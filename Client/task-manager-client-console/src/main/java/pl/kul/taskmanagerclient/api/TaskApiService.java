@@ -15,7 +15,7 @@ public class TaskApiService extends BaseApiService {
     private static final String BASE_URL = Config.BASE_URL + "/tasks";
 
     public TaskApiService() {
-        this(HttpClient.newHttpClient(), new ObjectMapper().findAndRegisterModules());
+        this(SHARED_HTTP_CLIENT, new ObjectMapper().findAndRegisterModules());
     }
 
     public TaskApiService(HttpClient httpClient, ObjectMapper objectMapper) {
@@ -6,6 +6,19 @@ plugins {
     id("org.springframework.boot") version "3.4.1"
     id("io.spring.dependency-management") version "1.1.7"
     id("org.beryx.runtime").version("1.12.7")
+    id("me.champeau.jmh") version "0.7.2"
+    id("org.graalvm.buildtools.native") version "0.10.4" apply false
+}
+
+// Startup profiles: -Paot bakes Spring AOT initializers into the boot jar (run with -Dspring.aot.enabled=true),
+// -Pnative additionally enables nativeCompile (requires GraalVM). AOT fixes the active profiles and
+// @Conditional outcomes at build time, so the virtual-threads profile is not switchable in these builds.
+val nativeImage = project.hasProperty("native")
+val aot = nativeImage || project.hasProperty("aot")
+if (nativeImage) {
+    apply(plugin = "org.graalvm.buildtools.native")
+} else if (aot) {
+    apply(plugin = "org.springframework.boot.aot")
 }
 
 val platform = when {
@@ -30,10 +43,20 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-cache")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.springframework.boot:spring-boot-starter-aop")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+    implementation("net.ttddyy:datasource-proxy:1.10")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
     implementation("jakarta.persistence:jakarta.persistence-api:3.1.0")
     implementation("jakarta.validation:jakarta.validation-api:3.0.2")
+    implementation("org.flywaydb:flyway-core")
+    implementation("org.apache.lucene:lucene-core:9.12.0")
 
     runtimeOnly("com.h2database:h2")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     compileOnly("org.projectlombok:lombok:1.18.36")
 
@@ -60,10 +83,98 @@ java {
     }
 }
 
+jmh {
+    jmhVersion = "1.37"
+    // Allocation rate (gc.alloc.rate.norm) per operation is reported next to the timings
+    profilers = listOf("gc")
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+}
+
 application {
     mainClass = "pl.kul.taskmanager.TaskManagerServerApplication"
 }
 
 tasks.test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+tasks.register<Test>("benchmark") {
+    description = "Runs the benchmark tests tagged with @Tag(\"benchmark\")."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+        excludeTags("startup")
+    }
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+}
+
+val javaLauncher = javaToolchains.launcherFor {
+    languageVersion = JavaLanguageVersion.of(23)
+}
+val cdsDir = layout.buildDirectory.dir("cds")
+val bootJarName = tasks.bootJar.flatMap { it.archiveFileName }
+
+// CDS needs an unpacked layout: the application jar with its dependencies in lib/, listed in the manifest
+val extractBootJar by tasks.registering(Exec::class) {
+    description = "Extracts the boot jar into build/cds for Class Data Sharing."
+    group = "build"
+    dependsOn(tasks.bootJar)
+    inputs.file(tasks.bootJar.flatMap { it.archiveFile })
+    outputs.dir(cdsDir)
+    doFirst {
+        delete(cdsDir)
+        commandLine(javaLauncher.get().executablePath.asFile, "-Djarmode=tools",
+                "-jar", tasks.bootJar.get().archiveFile.get().asFile, "extract", "--destination", cdsDir.get().asFile)
+    }
+}
+
+// Training run: the context is refreshed and closed right away, the classes loaded so far go into the archive
+fun registerCdsArchive(name: String, archive: String, vararg jvmArgs: String) = tasks.register<Exec>(name) {
+    description = "Creates the $archive AppCDS archive from a training run of the extracted application."
+    group = "build"
+    dependsOn(extractBootJar)
+    outputs.file(cdsDir.map { it.file(archive) })
+    doFirst {
+        workingDir(cdsDir.get().asFile)
+        commandLine(listOf(javaLauncher.get().executablePath.asFile.path, "-XX:ArchiveClassesAtExit=$archive",
+                "-Dspring.context.exit=onRefresh") + jvmArgs + listOf("-jar", bootJarName.get()))
+    }
+}
+
+val cdsArchive = registerCdsArchive("cdsArchive", "application.jsa")
+val aotCdsArchive = registerCdsArchive("aotCdsArchive", "application-aot.jsa", "-Dspring.aot.enabled=true")
+
+tasks.register<Test>("startupBenchmark") {
+    description = "Reports time-to-first-request of the packaged server on the JVM, with CDS, AOT and as a native image."
+    group = "verification"
+    dependsOn(cdsArchive)
+    if (aot) {
+        dependsOn(aotCdsArchive)
+    }
+    if (nativeImage) {
+        dependsOn("nativeCompile")
+    }
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("startup")
+    }
+    doFirst {
+        systemProperty("startup.java", javaLauncher.get().executablePath.asFile.path)
+        systemProperty("startup.dir", cdsDir.get().asFile.path)
+        systemProperty("startup.jar", bootJarName.get())
+        systemProperty("startup.aot", aot)
+        systemProperty("startup.native", if (nativeImage) layout.buildDirectory
+                .file("native/nativeCompile/${project.name}").get().asFile.path else "")
+    }
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package pl.kul.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pl.kul.taskmanager.dto.ProjectResponseDTO;
+import pl.kul.taskmanager.dto.TaskRequestDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.mapper.ProjectMapper;
+import pl.kul.taskmanager.mapper.TaskMapper;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Project;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.model.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int projectTaskCount;
+
+    private Task task;
+    private TaskRequestDTO taskRequest;
+    private Project project;
+
+    @Setup
+    public void setUp() {
+        project = new Project(1L, "Benchmark Project", "Project with many tasks", new ArrayList<>());
+        task = newTask(1L, project);
+        taskRequest = new TaskRequestDTO("Benchmark Task", "Task description", Priority.HIGH, Status.TODO,
+                LocalDate.now().plusDays(1), 1L);
+
+        for (long id = 1; id <= projectTaskCount; id++) {
+            project.getTasks().add(newTask(id, project));
+        }
+    }
+
+    @Benchmark
+    public TaskResponseDTO taskToDto() {
+        return TaskMapper.toDTO(task);
+    }
+
+    @Benchmark
+    public Task taskToEntity() {
+        return TaskMapper.toEntity(taskRequest);
+    }
+
+    @Benchmark
+    public ProjectResponseDTO projectToDto() {
+        return ProjectMapper.toDTO(project);
+    }
+
+    private static Task newTask(long id, Project project) {
+        return new Task(id, "Task " + id, "Description of task " + id, Priority.MEDIUM, Status.IN_PROGRESS,
+                LocalDate.now().plusDays(id % 30), project);
+    }
+}
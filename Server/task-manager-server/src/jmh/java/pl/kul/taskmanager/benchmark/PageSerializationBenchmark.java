@@ -0,0 +1,47 @@
+package pl.kul.taskmanager.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "500"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<TaskResponseDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        List<TaskResponseDTO> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> new TaskResponseDTO(id, "Task " + id, "x".repeat(200), Priority.MEDIUM, Status.TODO,
+                        LocalDate.now().plusDays(id % 30), id % 10))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 100_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
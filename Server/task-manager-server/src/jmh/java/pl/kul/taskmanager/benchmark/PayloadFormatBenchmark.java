@@ -0,0 +1,74 @@
+package pl.kul.taskmanager.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Encode/decode cost of a search page as JSON versus Smile; payload sizes are printed once per trial
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadFormatBenchmark {
+
+    public enum Format {
+        JSON, SMILE
+    }
+
+    @Param({"JSON", "SMILE"})
+    private Format format;
+
+    @Param({"20", "500"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<TaskResponseDTO> page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper jsonMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper = format == Format.SMILE ? jsonMapper.copyWith(new SmileFactory()) : jsonMapper;
+
+        List<TaskResponseDTO> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> new TaskResponseDTO(id, "Task " + id, "x".repeat(200), Priority.MEDIUM, Status.TODO,
+                        LocalDate.now().plusDays(id % 30), id % 10))
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 100_000);
+        payload = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d tasks: %d bytes%n", format, pageSize, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageBody decodePage() throws IOException {
+        return objectMapper.readValue(payload, PageBody.class);
+    }
+
+    // The part of the page a client actually reads back
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PageBody {
+        public List<TaskResponseDTO> content;
+        public long totalElements;
+        public int totalPages;
+    }
+}
@@ -0,0 +1,59 @@
+package pl.kul.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.search.FullTextIndex;
+import pl.kul.taskmanager.service.TaskService;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Measures building the Specification chain in TaskService.searchTasks; the repository is a stub returning an empty page
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SearchSpecificationBenchmark {
+
+    private final Pageable pageable = PageRequest.of(0, 20, Sort.by("dueDate"));
+    private final LocalDate from = LocalDate.now();
+    private final LocalDate to = LocalDate.now().plusDays(30);
+
+    private FullTextIndex fullTextIndex;
+    private TaskService taskService;
+
+    @Setup
+    public void setUp() throws IOException {
+        TaskRepository repository = (TaskRepository) Proxy.newProxyInstance(
+                TaskRepository.class.getClassLoader(),
+                new Class<?>[]{TaskRepository.class},
+                (_, method, args) -> "findAll".equals(method.getName()) && args != null && args.length == 2
+                        ? Page.empty((Pageable) args[1])
+                        : null);
+        fullTextIndex = new FullTextIndex(false);
+        taskService = new TaskService(repository, null, fullTextIndex, null, null, null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fullTextIndex.destroy();
+    }
+
+    @Benchmark
+    public Page<TaskResponseDTO> noFilters() {
+        return taskService.searchTasks(null, null, null, null, null, null, null, null, pageable);
+    }
+
+    @Benchmark
+    public Page<TaskResponseDTO> allFilters() {
+        return taskService.searchTasks(Status.TODO, Priority.HIGH, 1L, from, to, "release", "notes", 1L, pageable);
+    }
+}
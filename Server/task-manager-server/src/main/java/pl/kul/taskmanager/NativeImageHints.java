@@ -0,0 +1,41 @@
+package pl.kul.taskmanager;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+// Reflection and proxy metadata that AOT processing cannot infer; only consulted by the native image build
+class NativeImageHints implements RuntimeHintsRegistrar {
+
+    // Lucene instantiates token attributes reflectively by their interface name + "Impl"
+    private static final String[] LUCENE_ATTRIBUTES = {
+            "org.apache.lucene.analysis.tokenattributes.PackedTokenAttributeImpl",
+            "org.apache.lucene.analysis.tokenattributes.CharTermAttributeImpl",
+            "org.apache.lucene.analysis.tokenattributes.BytesTermAttributeImpl",
+            "org.apache.lucene.analysis.tokenattributes.FlagsAttributeImpl",
+            "org.apache.lucene.analysis.tokenattributes.KeywordAttributeImpl",
+            "org.apache.lucene.analysis.tokenattributes.PayloadAttributeImpl",
+            "org.apache.lucene.analysis.tokenattributes.TermFrequencyAttributeImpl"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // datasource-proxy wraps JDBC objects in JDK proxies (see metrics.MetricsConfig)
+        hints.proxies()
+                .registerJdkProxy(ProxyJdbcObject.class, Connection.class)
+                .registerJdkProxy(ProxyJdbcObject.class, Statement.class)
+                .registerJdkProxy(ProxyJdbcObject.class, PreparedStatement.class)
+                .registerJdkProxy(ProxyJdbcObject.class, CallableStatement.class);
+
+        for (String attribute : LUCENE_ATTRIBUTES) {
+            hints.reflection().registerType(TypeReference.of(attribute), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
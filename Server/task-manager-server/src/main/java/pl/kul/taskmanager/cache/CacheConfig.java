@@ -0,0 +1,12 @@
+package pl.kul.taskmanager.cache;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TASKS = "tasks";
+    public static final String PROJECTS = "projects";
+}
@@ -0,0 +1,48 @@
+package pl.kul.taskmanager.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.kul.taskmanager.transaction.AfterCommit;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+public class CacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    public CacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void evictTask(Long id) {
+        evict(CacheConfig.TASKS, List.of(id));
+    }
+
+    public void evictTasks(Collection<Long> ids) {
+        evict(CacheConfig.TASKS, ids);
+    }
+
+    public void evictProject(Long id) {
+        if (id != null) {
+            evict(CacheConfig.PROJECTS, List.of(id));
+        }
+    }
+
+    // Evicts now and again after commit, so a concurrent read cannot re-cache the pre-commit state
+    private void evict(String cacheName, Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || ids.isEmpty()) {
+            return;
+        }
+
+        ids.forEach(cache::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> pending = List.copyOf(ids);
+            AfterCommit.run(() -> pending.forEach(cache::evict));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package pl.kul.taskmanager.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.kul.taskmanager.events.ChangeFeed;
+import pl.kul.taskmanager.model.Status;
+
+@RestController
+@RequestMapping("/api/events")
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+
+    public ChangeFeedController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    // Browsers resend Last-Event-ID on reconnect; the query parameter covers the first connection of a resuming client
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Status status
+    ) {
+        return changeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId, projectId, status);
+    }
+}
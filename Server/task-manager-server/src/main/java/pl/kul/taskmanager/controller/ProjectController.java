@@ -5,22 +5,44 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import pl.kul.taskmanager.dto.BatchFetchResponseDTO;
+import pl.kul.taskmanager.dto.ProjectDeletionJobDTO;
+import pl.kul.taskmanager.dto.ProjectDeletionStatus;
 import pl.kul.taskmanager.dto.ProjectRequestDTO;
 import pl.kul.taskmanager.dto.ProjectResponseDTO;
+import pl.kul.taskmanager.dto.ProjectSummaryDTO;
+import pl.kul.taskmanager.dto.TaskAssignmentResponseDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.metrics.QueryBudget;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.service.ProjectDeletionService;
 import pl.kul.taskmanager.service.ProjectService;
+import pl.kul.taskmanager.web.WebConfig;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/projects")
 public class ProjectController {
 
+    // Distinguishes the ETag of the representation without embedded tasks from the full one
+    private static final String WITHOUT_TASKS = "includeTasks=false";
+
     private final ProjectService projectService;
+    private final ProjectDeletionService projectDeletionService;
 
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, ProjectDeletionService projectDeletionService) {
         this.projectService = projectService;
+        this.projectDeletionService = projectDeletionService;
     }
 
     @PostMapping
@@ -30,27 +52,156 @@ public class ProjectController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ProjectResponseDTO>> getAllProjects() {
-        List<ProjectResponseDTO> projects = projectService.getAllProjects();
+    @QueryBudget(3)
+    public ResponseEntity<List<ProjectResponseDTO>> getAllProjects(
+            @RequestParam(defaultValue = "true") boolean includeTasks,
+            WebRequest request
+    ) {
+        VersionStampDTO stamp = projectService.getProjectsVersionStamp();
+        if (request.checkNotModified(includeTasks
+                ? stamp.toWeakETag(WebConfig.negotiatedType(request))
+                : stamp.toWeakETag(WITHOUT_TASKS, WebConfig.negotiatedType(request)))) {
+            return null;
+        }
+        List<ProjectResponseDTO> projects = projectService.getAllProjects(includeTasks);
         return ResponseEntity.ok(projects);
     }
 
+    // Sparse fieldset over the project columns; embedded tasks are never part of it
+    @GetMapping(params = {"fields", "!ids"})
+    @QueryBudget(3)
+    public ResponseEntity<List<Map<String, Object>>> getAllProjects(@RequestParam List<String> fields, WebRequest request) {
+        VersionStampDTO stamp = projectService.getProjectsVersionStamp();
+        if (request.checkNotModified(stamp.toWeakETag(String.join(",", fields), WebConfig.negotiatedType(request)))) {
+            return null;
+        }
+        List<Map<String, Object>> projects = projectService.getAllProjects(fields);
+        return ResponseEntity.ok(projects);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchFetchResponseDTO<ProjectResponseDTO>> getProjectsByIds(
+            @RequestParam List<Long> ids,
+            @RequestParam(defaultValue = "true") boolean includeTasks
+    ) {
+        BatchFetchResponseDTO<ProjectResponseDTO> result = projectService.getProjectsByIds(ids, includeTasks);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<BatchFetchResponseDTO<ProjectResponseDTO>> lookupProjects(
+            @RequestBody List<Long> ids,
+            @RequestParam(defaultValue = "true") boolean includeTasks
+    ) {
+        BatchFetchResponseDTO<ProjectResponseDTO> result = projectService.getProjectsByIds(ids, includeTasks);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectResponseDTO> getProjectById(@PathVariable Long id) {
-        ProjectResponseDTO project = projectService.getProjectById(id);
+    public ResponseEntity<ProjectResponseDTO> getProjectById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "true") boolean includeTasks,
+            WebRequest request
+    ) {
+        VersionStampDTO stamp = projectService.getProjectVersionStamp(id);
+        if (request.checkNotModified(includeTasks
+                ? stamp.toWeakETag(id, WebConfig.negotiatedType(request))
+                : stamp.toWeakETag(id, WITHOUT_TASKS, WebConfig.negotiatedType(request)),
+                stamp.getLastModifiedMillis())) {
+            return null;
+        }
+        ProjectResponseDTO project = projectService.getProjectById(id, includeTasks);
+        return ResponseEntity.ok(project);
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getProjectById(
+            @PathVariable Long id,
+            @RequestParam List<String> fields,
+            WebRequest request
+    ) {
+        VersionStampDTO stamp = projectService.getProjectVersionStamp(id);
+        if (request.checkNotModified(stamp.toWeakETag(id, String.join(",", fields),
+                WebConfig.negotiatedType(request)))) {
+            return null;
+        }
+        Map<String, Object> project = projectService.getProjectById(id, fields);
         return ResponseEntity.ok(project);
     }
 
+    @GetMapping("/{id}/tasks")
+    @QueryBudget(5)
+    public ResponseEntity<Page<TaskResponseDTO>> getProjectTasks(
+            @PathVariable Long id,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id,asc") String[] sort,
+            WebRequest request
+    ) {
+        VersionStampDTO stamp = projectService.getProjectTasksVersionStamp(id, status, priority, dueDateFrom, dueDateTo);
+        if (request.checkNotModified(stamp.toWeakETag(id, page, size, String.join(",", sort),
+                WebConfig.negotiatedType(request)))) {
+            return null;
+        }
+
+        Sort.Direction direction = Sort.Direction.ASC;
+        String sortBy = "id";
+
+        if (sort.length == 2) {
+            sortBy = sort[0];
+            direction = sort[1].equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+
+        Page<TaskResponseDTO> result = projectService.getProjectTasks(id, status, priority, dueDateFrom, dueDateTo, pageable);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/summary")
+    @QueryBudget(1)
+    public ResponseEntity<List<ProjectSummaryDTO>> getAllProjectSummaries() {
+        List<ProjectSummaryDTO> summaries = projectService.getAllProjectSummaries();
+        return ResponseEntity.ok(summaries);
+    }
+
+    @GetMapping("/{id}/summary")
+    @QueryBudget(1)
+    public ResponseEntity<ProjectSummaryDTO> getProjectSummaryById(@PathVariable Long id) {
+        ProjectSummaryDTO summary = projectService.getProjectSummaryById(id);
+        return ResponseEntity.ok(summary);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProjectResponseDTO> updateProject(@PathVariable Long id, @Valid @RequestBody ProjectRequestDTO dto) {
         ProjectResponseDTO updated = projectService.updateProject(id, dto);
         return ResponseEntity.ok(updated);
     }
 
+    // Large projects are deleted by a background job: 202 points at the job resource to poll for progress
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
-        projectService.deleteProject(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<ProjectDeletionJobDTO> deleteProject(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean detachTasks,
+            @RequestParam(defaultValue = "false") boolean async
+    ) {
+        ProjectDeletionJobDTO job = projectDeletionService.deleteProject(id, detachTasks, async);
+        if (job.getStatus() == ProjectDeletionStatus.COMPLETED) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/projects/deletions/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<ProjectDeletionJobDTO> getProjectDeletion(@PathVariable String jobId) {
+        ProjectDeletionJobDTO job = projectDeletionService.getJob(jobId);
+        return ResponseEntity.ok(job);
     }
 
     @GetMapping("/search")
@@ -60,8 +211,49 @@ public class ProjectController {
             @RequestParam(required = false) String description,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id,asc") String[] sort
+            @RequestParam(defaultValue = "id,asc") String[] sort,
+            @RequestParam(defaultValue = "true") boolean includeTasks,
+            WebRequest request
+    ) {
+        VersionStampDTO stamp = projectService.getProjectsVersionStamp(id, name, description);
+        String sortKey = String.join(",", sort);
+        if (request.checkNotModified(includeTasks
+                ? stamp.toWeakETag(page, size, sortKey, WebConfig.negotiatedType(request))
+                : stamp.toWeakETag(page, size, sortKey, WITHOUT_TASKS, WebConfig.negotiatedType(request)))) {
+            return null;
+        }
+
+        Sort.Direction direction = Sort.Direction.ASC;
+        String sortBy = "id";
+
+        if (sort.length == 2) {
+            sortBy = sort[0];
+            direction = sort[1].equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+
+        Page<ProjectResponseDTO> result = projectService.searchProjects(id, name, description, includeTasks, pageable);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<Page<Map<String, Object>>> searchProjects(
+            @RequestParam(required = false) Long id,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String description,
+            @RequestParam List<String> fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id,asc") String[] sort,
+            WebRequest request
     ) {
+        VersionStampDTO stamp = projectService.getProjectsVersionStamp(id, name, description);
+        if (request.checkNotModified(stamp.toWeakETag(page, size, String.join(",", sort), String.join(",", fields),
+                WebConfig.negotiatedType(request)))) {
+            return null;
+        }
+
         Sort.Direction direction = Sort.Direction.ASC;
         String sortBy = "id";
 
@@ -72,19 +264,54 @@ public class ProjectController {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
-        Page<ProjectResponseDTO> result = projectService.searchProjects(id, name, description, pageable);
+        Page<Map<String, Object>> result = projectService.searchProjects(id, name, description, fields, pageable);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<List<ProjectResponseDTO>> searchProjectsByText(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        List<ProjectResponseDTO> result = projectService.searchProjectsByText(query, limit);
         return ResponseEntity.ok(result);
     }
 
     @PostMapping("/{projectId}/tasks/{taskId}")
-    public ResponseEntity<ProjectResponseDTO> addTaskToProject(@PathVariable Long projectId, @PathVariable Long taskId) {
-        ProjectResponseDTO updatedProject = projectService.addTaskToProject(projectId, taskId);
+    public ResponseEntity<ProjectResponseDTO> addTaskToProject(
+            @PathVariable Long projectId,
+            @PathVariable Long taskId,
+            @RequestParam(defaultValue = "true") boolean includeTasks
+    ) {
+        ProjectResponseDTO updatedProject = projectService.addTaskToProject(projectId, taskId, includeTasks);
         return ResponseEntity.ok(updatedProject);
     }
 
     @DeleteMapping("/{projectId}/tasks/{taskId}")
-    public ResponseEntity<ProjectResponseDTO> removeTaskFromProject(@PathVariable Long projectId, @PathVariable Long taskId) {
-        ProjectResponseDTO updatedProject = projectService.removeTaskFromProject(projectId, taskId);
+    public ResponseEntity<ProjectResponseDTO> removeTaskFromProject(
+            @PathVariable Long projectId,
+            @PathVariable Long taskId,
+            @RequestParam(defaultValue = "true") boolean includeTasks
+    ) {
+        ProjectResponseDTO updatedProject = projectService.removeTaskFromProject(projectId, taskId, includeTasks);
         return ResponseEntity.ok(updatedProject);
     }
+
+    @PostMapping("/{projectId}/tasks/assign")
+    public ResponseEntity<TaskAssignmentResponseDTO> assignTasksToProject(
+            @PathVariable Long projectId,
+            @RequestBody List<Long> taskIds
+    ) {
+        TaskAssignmentResponseDTO result = projectService.assignTasksToProject(projectId, taskIds);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/{projectId}/tasks/unassign")
+    public ResponseEntity<TaskAssignmentResponseDTO> unassignTasksFromProject(
+            @PathVariable Long projectId,
+            @RequestBody List<Long> taskIds
+    ) {
+        TaskAssignmentResponseDTO result = projectService.unassignTasksFromProject(projectId, taskIds);
+        return ResponseEntity.ok(result);
+    }
 }
@@ -0,0 +1,24 @@
+package pl.kul.taskmanager.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.kul.taskmanager.dto.TaskStatisticsDTO;
+import pl.kul.taskmanager.stats.TaskStatistics;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatisticsController {
+
+    private final TaskStatistics taskStatistics;
+
+    public StatisticsController(TaskStatistics taskStatistics) {
+        this.taskStatistics = taskStatistics;
+    }
+
+    @GetMapping
+    public ResponseEntity<TaskStatisticsDTO> getStatistics() {
+        return ResponseEntity.ok(taskStatistics.snapshot());
+    }
+}
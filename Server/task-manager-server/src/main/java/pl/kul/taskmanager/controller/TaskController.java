@@ -1,5 +1,7 @@
 package pl.kul.taskmanager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.springframework.data.domain.Page;
@@ -7,25 +9,46 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import pl.kul.taskmanager.dto.BatchFetchResponseDTO;
+import pl.kul.taskmanager.dto.BulkTaskResponseDTO;
+import pl.kul.taskmanager.dto.ExportFormat;
+import pl.kul.taskmanager.dto.TaskPatchDTO;
 import pl.kul.taskmanager.dto.TaskRequestDTO;
 import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.TaskSliceResponseDTO;
+import pl.kul.taskmanager.dto.TaskTransitionRequestDTO;
+import pl.kul.taskmanager.dto.TaskTransitionResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.metrics.QueryBudget;
 import pl.kul.taskmanager.model.Priority;
 import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.mapper.TaskCsvMapper;
 import pl.kul.taskmanager.service.TaskService;
+import pl.kul.taskmanager.web.WebConfig;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -34,24 +57,97 @@ public class TaskController {
         return ResponseEntity.ok(created);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkTaskResponseDTO> createTasks(@RequestBody List<TaskRequestDTO> dtos) {
+        BulkTaskResponseDTO result = taskService.createTasks(dtos);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/transition")
+    public ResponseEntity<TaskTransitionResponseDTO> transitionTasks(@RequestBody TaskTransitionRequestDTO request) {
+        TaskTransitionResponseDTO result = taskService.transitionTasks(request);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
-    public ResponseEntity<List<TaskResponseDTO>> getAllTasks() {
+    @QueryBudget(2)
+    public ResponseEntity<List<TaskResponseDTO>> getAllTasks(WebRequest request) {
+        VersionStampDTO stamp = taskService.getTasksVersionStamp();
+        if (request.checkNotModified(stamp.toWeakETag(WebConfig.negotiatedType(request)))) {
+            return null;
+        }
         List<TaskResponseDTO> tasks = taskService.getAllTasks();
         return ResponseEntity.ok(tasks);
     }
 
+    // Sparse fieldset: only the listed columns are selected and serialized, e.g. ?fields=id,name,status
+    @GetMapping(params = {"fields", "!ids"})
+    @QueryBudget(2)
+    public ResponseEntity<List<Map<String, Object>>> getAllTasks(@RequestParam List<String> fields, WebRequest request) {
+        VersionStampDTO stamp = taskService.getTasksVersionStamp();
+        if (request.checkNotModified(stamp.toWeakETag(String.join(",", fields), WebConfig.negotiatedType(request)))) {
+            return null;
+        }
+        List<Map<String, Object>> tasks = taskService.getAllTasks(fields);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchFetchResponseDTO<TaskResponseDTO>> getTasksByIds(@RequestParam List<Long> ids) {
+        BatchFetchResponseDTO<TaskResponseDTO> result = taskService.getTasksByIds(ids);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<BatchFetchResponseDTO<TaskResponseDTO>> lookupTasks(@RequestBody List<Long> ids) {
+        BatchFetchResponseDTO<TaskResponseDTO> result = taskService.getTasksByIds(ids);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable @Min(1) Long id) {
+    @QueryBudget(2)
+    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable @Min(1) Long id, WebRequest request) {
+        VersionStampDTO stamp = taskService.getTaskVersionStamp(id);
+        if (request.checkNotModified(stamp.toETag(id, WebConfig.negotiatedType(request)),
+                stamp.getLastModifiedMillis())) {
+            return null;
+        }
         TaskResponseDTO task = taskService.getTaskById(id);
         return ResponseEntity.ok(task);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    @QueryBudget(2)
+    public ResponseEntity<Map<String, Object>> getTaskById(
+            @PathVariable @Min(1) Long id,
+            @RequestParam List<String> fields,
+            WebRequest request
+    ) {
+        VersionStampDTO stamp = taskService.getTaskVersionStamp(id);
+        if (request.checkNotModified(stamp.toETag(id, String.join(",", fields), WebConfig.negotiatedType(request)),
+                stamp.getLastModifiedMillis())) {
+            return null;
+        }
+        Map<String, Object> task = taskService.getTaskById(id, fields);
+        return ResponseEntity.ok(task);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponseDTO> updateTask(@PathVariable @Min(1) Long id, @Valid @RequestBody TaskRequestDTO dto) {
         TaskResponseDTO updated = taskService.updateTask(id, dto);
         return ResponseEntity.ok(updated);
     }
 
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<TaskResponseDTO> patchTask(
+            @PathVariable @Min(1) Long id,
+            @RequestBody TaskPatchDTO patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        TaskResponseDTO patched = taskService.patchTask(id, patch, ifMatch);
+        return ResponseEntity.ok(patched);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable @Min(1) Long id) {
         taskService.deleteTask(id);
@@ -59,6 +155,7 @@ public class TaskController {
     }
 
     @GetMapping("/search")
+    @QueryBudget(3)
     public ResponseEntity<Page<TaskResponseDTO>> searchTasks(
             @RequestParam(required = false) Status status,
             @RequestParam(required = false) Priority priority,
@@ -70,8 +167,16 @@ public class TaskController {
             @RequestParam(required = false) Long id,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id,asc") String[] sort
+            @RequestParam(defaultValue = "id,asc") String[] sort,
+            WebRequest request
     ) {
+        VersionStampDTO stamp = taskService.getTasksVersionStamp(status, priority, projectId, dueDateFrom, dueDateTo,
+                search, name, id);
+        if (request.checkNotModified(stamp.toWeakETag(page, size, String.join(",", sort),
+                WebConfig.negotiatedType(request)))) {
+            return null;
+        }
+
         Sort.Direction direction = Sort.Direction.ASC;
         String sortBy = "id";
 
@@ -85,4 +190,112 @@ public class TaskController {
         Page<TaskResponseDTO> result = taskService.searchTasks(status, priority, projectId, dueDateFrom, dueDateTo, search, name, id, pageable);
         return ResponseEntity.ok(result);
     }
+
+    @GetMapping(value = "/search", params = "fields")
+    @QueryBudget(3)
+    public ResponseEntity<Page<Map<String, Object>>> searchTasks(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Long id,
+            @RequestParam List<String> fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id,asc") String[] sort,
+            WebRequest request
+    ) {
+        VersionStampDTO stamp = taskService.getTasksVersionStamp(status, priority, projectId, dueDateFrom, dueDateTo,
+                search, name, id);
+        if (request.checkNotModified(stamp.toWeakETag(page, size, String.join(",", sort), String.join(",", fields),
+                WebConfig.negotiatedType(request)))) {
+            return null;
+        }
+
+        Sort.Direction direction = Sort.Direction.ASC;
+        String sortBy = "id";
+
+        if (sort.length == 2) {
+            sortBy = sort[0];
+            direction = sort[1].equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+
+        Page<Map<String, Object>> result = taskService.searchTasks(status, priority, projectId, dueDateFrom, dueDateTo,
+                search, name, id, fields, pageable);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<List<TaskResponseDTO>> searchTasksByText(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "20") @Min(1) int limit
+    ) {
+        List<TaskResponseDTO> result = taskService.searchTasksByText(query, limit);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/search/cursor")
+    @QueryBudget(1)
+    public ResponseEntity<TaskSliceResponseDTO> searchTasksAfter(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id,asc") String[] sort
+    ) {
+        Sort.Direction direction = Sort.Direction.ASC;
+        String sortBy = "id";
+
+        if (sort.length == 2) {
+            sortBy = sort[0];
+            direction = sort[1].equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        }
+
+        TaskSliceResponseDTO result = taskService.searchTasksAfter(status, priority, projectId, dueDateFrom, dueDateTo,
+                search, name, id, sortBy, direction, after, size);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/export")
+    public void exportTasks(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Long id,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(format == ExportFormat.CSV ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+
+        PrintWriter writer = response.getWriter();
+        if (format == ExportFormat.CSV) {
+            writer.write(TaskCsvMapper.HEADER + "\n");
+        }
+
+        taskService.exportTasks(status, priority, projectId, dueDateFrom, dueDateTo, search, name, id, task -> {
+            try {
+                String line = format == ExportFormat.CSV ? TaskCsvMapper.toCsvRow(task) : objectMapper.writeValueAsString(task);
+                writer.write(line + "\n");
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.flush();
+    }
 }
@@ -0,0 +1,33 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchFetchResponseDTO<T> {
+    private List<T> items;
+    private List<Long> missingIds;
+
+    // Items follow the order of the requested ids; each id is reported once, either as an item or as missing
+    public static <T> BatchFetchResponseDTO<T> of(Collection<Long> requestedIds, Map<Long, T> found) {
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BatchFetchResponseDTO<>(items, missingIds);
+    }
+}
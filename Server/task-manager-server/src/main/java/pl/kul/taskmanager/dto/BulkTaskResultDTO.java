@@ -0,0 +1,16 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskResultDTO {
+    private int index;
+    private Long id;
+    private List<String> errors;
+}
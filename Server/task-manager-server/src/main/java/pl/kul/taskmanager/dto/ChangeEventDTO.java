@@ -0,0 +1,24 @@
+package pl.kul.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pl.kul.taskmanager.events.ChangeEntity;
+import pl.kul.taskmanager.events.ChangeType;
+import pl.kul.taskmanager.model.Status;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDTO {
+    private Long id;
+    private ChangeType type;
+    private ChangeEntity entity;
+    private Long entityId;
+    private Long projectId;
+    private Long previousProjectId;
+    private Status status;
+    private Status previousStatus;
+}
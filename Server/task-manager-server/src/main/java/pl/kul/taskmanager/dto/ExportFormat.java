@@ -0,0 +1,6 @@
+package pl.kul.taskmanager.dto;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
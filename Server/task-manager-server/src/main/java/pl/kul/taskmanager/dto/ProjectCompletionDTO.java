@@ -0,0 +1,15 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectCompletionDTO {
+    private Long projectId;
+    private long totalTasks;
+    private long doneTasks;
+    private double completionRatio;
+}
@@ -0,0 +1,24 @@
+package pl.kul.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProjectDeletionJobDTO {
+    private String id;
+    private Long projectId;
+    private boolean detachTasks;
+    private ProjectDeletionStatus status;
+    private long totalTasks;
+    private long processedTasks;
+    private String error;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,8 @@
+package pl.kul.taskmanager.dto;
+
+public enum ProjectDeletionStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,5 +1,6 @@
 package pl.kul.taskmanager.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,5 +14,7 @@ public class ProjectResponseDTO {
     private Long id;
     private String name;
     private String description;
+    // Left out of the response when the caller asked for includeTasks=false
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<TaskResponseDTO> tasks;
 }
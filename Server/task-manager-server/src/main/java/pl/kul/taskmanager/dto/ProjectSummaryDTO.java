@@ -0,0 +1,36 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pl.kul.taskmanager.model.Status;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectSummaryDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private Map<Status, Long> taskCounts;
+    private LocalDate nextDueDate;
+
+    // Used by the JPQL constructor expression in ProjectRepository
+    public ProjectSummaryDTO(Long id, String name, String description,
+                             Long todoCount, Long inProgressCount, Long blockedCount, Long doneCount,
+                             LocalDate nextDueDate) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.taskCounts = new EnumMap<>(Status.class);
+        this.taskCounts.put(Status.TODO, todoCount);
+        this.taskCounts.put(Status.IN_PROGRESS, inProgressCount);
+        this.taskCounts.put(Status.BLOCKED, blockedCount);
+        this.taskCounts.put(Status.DONE, doneCount);
+        this.nextDueDate = nextDueDate;
+    }
+}
@@ -0,0 +1,20 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCountDTO {
+    private Status status;
+    private Priority priority;
+    private LocalDate dueDate;
+    private Long projectId;
+    private Long count;
+}
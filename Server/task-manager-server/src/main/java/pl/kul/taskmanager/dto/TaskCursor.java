@@ -0,0 +1,69 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.model.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+public class TaskCursor {
+
+    public static final Set<String> SORT_FIELDS = Set.of("id", "name", "priority", "status", "dueDate");
+
+    private String sortBy;
+    private Sort.Direction direction;
+    private Comparable<?> value;
+    private Long id;
+
+    public static TaskCursor of(Task task, String sortBy, Sort.Direction direction) {
+        Comparable<?> value = switch (sortBy) {
+            case "id" -> task.getId();
+            case "name" -> task.getName();
+            case "priority" -> task.getPriority();
+            case "status" -> task.getStatus();
+            case "dueDate" -> task.getDueDate();
+            default -> throw new IllegalArgumentException("Unsupported cursor sort field: " + sortBy);
+        };
+        return new TaskCursor(sortBy, direction, value, task.getId());
+    }
+
+    public String encode() {
+        String raw = sortBy + ":" + direction + ":" + id + (value != null ? ":" + value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            if (parts.length < 3 || !SORT_FIELDS.contains(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            Long id = Long.valueOf(parts[2]);
+            Comparable<?> value = parts.length == 4 ? parseValue(parts[0], parts[3]) : null;
+            return new TaskCursor(parts[0], Sort.Direction.fromString(parts[1]), value, id);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    private static Comparable<?> parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "id" -> Long.valueOf(value);
+            case "name" -> value;
+            case "priority" -> Priority.valueOf(value);
+            case "status" -> Status.valueOf(value);
+            case "dueDate" -> LocalDate.parse(value);
+            default -> throw new IllegalArgumentException("Unsupported cursor sort field: " + sortBy);
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package pl.kul.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// JSON Merge Patch (RFC 7396) body: only members present in the document are applied, an explicit null clears a field
+@Getter
+@NoArgsConstructor
+public class TaskPatchDTO {
+
+    public static final String NAME = "name";
+    public static final String DESCRIPTION = "description";
+    public static final String PRIORITY = "priority";
+    public static final String STATUS = "status";
+    public static final String DUE_DATE = "dueDate";
+
+    private String name;
+    private String description;
+    private Priority priority;
+    private Status status;
+    private LocalDate dueDate;
+
+    @JsonIgnore
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+    @JsonIgnore
+    private final Set<String> unsupportedFields = new LinkedHashSet<>();
+
+    public void setName(String name) {
+        this.name = name;
+        changes.put(NAME, name);
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        changes.put(DESCRIPTION, description);
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+        changes.put(PRIORITY, priority);
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+        changes.put(STATUS, status);
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+        changes.put(DUE_DATE, dueDate);
+    }
+
+    @JsonAnySetter
+    public void setUnsupportedField(String field, Object value) {
+        unsupportedFields.add(field);
+    }
+}
@@ -1,5 +1,6 @@
 package pl.kul.taskmanager.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,4 +20,12 @@ public class TaskResponseDTO {
     private Status status;
     private LocalDate dueDate;
     private Long projectId;
+    // Row version the state was read at; set-based UPDATEs are guarded with it, clients use ETags instead
+    @JsonIgnore
+    private Long version;
+
+    public TaskResponseDTO(Long id, String name, String description, Priority priority, Status status,
+                           LocalDate dueDate, Long projectId) {
+        this(id, name, description, priority, status, dueDate, projectId, null);
+    }
 }
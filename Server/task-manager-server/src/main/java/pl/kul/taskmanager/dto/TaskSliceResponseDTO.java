@@ -0,0 +1,17 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSliceResponseDTO {
+    private List<TaskResponseDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
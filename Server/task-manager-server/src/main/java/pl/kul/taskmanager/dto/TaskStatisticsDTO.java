@@ -0,0 +1,22 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatisticsDTO {
+    private long totalTasks;
+    private long overdueTasks;
+    private Map<Status, Map<Priority, Long>> tasksByStatusAndPriority;
+    private List<ProjectCompletionDTO> projects;
+    private Instant reconciledAt;
+}
@@ -0,0 +1,35 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Selects tasks either by ids or by the same filters as /api/tasks/search, never both
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTransitionRequestDTO {
+
+    private List<Long> ids;
+
+    private Status status;
+    private Priority priority;
+    private Long projectId;
+    private LocalDate dueDateFrom;
+    private LocalDate dueDateTo;
+    private String search;
+    private String name;
+
+    private Status targetStatus;
+    private Priority targetPriority;
+
+    public boolean hasFilter() {
+        return status != null || priority != null || projectId != null || dueDateFrom != null || dueDateTo != null
+                || (search != null && !search.isBlank()) || (name != null && !name.isBlank());
+    }
+}
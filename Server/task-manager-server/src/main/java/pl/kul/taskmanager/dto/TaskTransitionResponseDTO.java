@@ -0,0 +1,17 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTransitionResponseDTO {
+    private int matched;
+    private int updated;
+    private int unchanged;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,51 @@
+package pl.kul.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionStampDTO {
+    private Long count;
+    private Long version;
+    private Instant lastModified;
+
+    public VersionStampDTO combine(VersionStampDTO other) {
+        Instant newest = lastModified == null || (other.lastModified != null && other.lastModified.isAfter(lastModified))
+                ? other.lastModified
+                : lastModified;
+        return new VersionStampDTO(count + other.count, nullToZero(version) + nullToZero(other.version), newest);
+    }
+
+    // Rows entering or changing in the stamped set carry the newest timestamp, rows leaving it lower the count
+    public String toETag(Object... representation) {
+        StringBuilder source = new StringBuilder()
+                .append(count).append('|')
+                .append(version).append('|')
+                .append(lastModified);
+        for (Object part : representation) {
+            source.append('|').append(part);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // Tomcat only compresses responses without a strong ETag, so large collection reads send weak validators;
+    // strong ones stay on single tasks, whose If-Match needs strong comparison and which are too small to compress
+    public String toWeakETag(Object... representation) {
+        return "W/" + toETag(representation);
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+
+    private static long nullToZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,6 @@
+package pl.kul.taskmanager.events;
+
+public enum ChangeEntity {
+    TASK,
+    PROJECT
+}
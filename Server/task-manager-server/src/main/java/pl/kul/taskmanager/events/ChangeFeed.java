@@ -0,0 +1,254 @@
+package pl.kul.taskmanager.events;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.kul.taskmanager.dto.ChangeEventDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.transaction.AfterCommit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+@Component
+public class ChangeFeed implements DisposableBean {
+
+    public static final String EVENT_NAME = "change";
+    public static final String RESET_EVENT_NAME = "reset";
+
+    private final ChangeEventDTO[] buffer;
+    private final int subscriberQueueSize;
+    private final long timeoutMillis;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    // Every subscriber drains its own queue on its own task, so a client that stops reading only blocks itself
+    private final ExecutorService sender;
+    private long lastEventId;
+
+    public ChangeFeed(@Value("${taskmanager.events.buffer-size:1000}") int bufferSize,
+                      @Value("${taskmanager.events.subscriber-queue-size:1000}") int subscriberQueueSize,
+                      @Value("${taskmanager.events.timeout:PT30M}") Duration timeout,
+                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("taskmanager.events.buffer-size must be at least 1, was " + bufferSize);
+        }
+        if (subscriberQueueSize < 1) {
+            throw new IllegalArgumentException("taskmanager.events.subscriber-queue-size must be at least 1, was "
+                    + subscriberQueueSize);
+        }
+        this.buffer = new ChangeEventDTO[bufferSize];
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeoutMillis = timeout.toMillis();
+        // Follows the same switch as Tomcat, so the virtual-threads profile moves the senders off platform threads too
+        ThreadFactory threads = (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon())
+                .name("change-feed-sender-", 0)
+                .factory();
+        this.sender = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(threads)
+                : Executors.newCachedThreadPool(threads);
+    }
+
+    public void taskCreated(TaskResponseDTO task) {
+        publish(taskEvent(ChangeType.CREATED, task));
+    }
+
+    public void taskUpdated(TaskResponseDTO before, TaskResponseDTO after) {
+        ChangeEventDTO event = taskEvent(ChangeType.UPDATED, after);
+        event.setPreviousStatus(before.getStatus());
+        publish(event);
+    }
+
+    public void taskDeleted(TaskResponseDTO task) {
+        publish(taskEvent(ChangeType.DELETED, task));
+    }
+
+    public void taskAssigned(TaskResponseDTO task, Long previousProjectId) {
+        ChangeEventDTO event = taskEvent(ChangeType.ASSIGNED, task);
+        event.setPreviousProjectId(previousProjectId);
+        publish(event);
+    }
+
+    public void projectCreated(Long projectId) {
+        publish(projectEvent(ChangeType.CREATED, projectId));
+    }
+
+    public void projectUpdated(Long projectId) {
+        publish(projectEvent(ChangeType.UPDATED, projectId));
+    }
+
+    public void projectDeleted(Long projectId) {
+        publish(projectEvent(ChangeType.DELETED, projectId));
+    }
+
+    // Replays buffered events newer than lastEventId; a reset event tells the client it missed more than the buffer holds
+    public SseEmitter subscribe(Long lastEventId, Long projectId, Status status) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId, projectId, status);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long lastEventId, Long projectId, Status status) {
+        Subscription subscription = new Subscription(emitter, projectId, status);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(_ -> subscriptions.remove(subscription));
+
+        synchronized (this) {
+            if (lastEventId != null) {
+                long currentEventId = this.lastEventId;
+                long oldestBuffered = Math.max(1, currentEventId - buffer.length + 1);
+                // Ids restart with the server, so an id from the future is as unusable as one that fell out of the
+                // buffer; a replay longer than the subscriber's queue would overflow it at once, so it is a reset too
+                if (lastEventId + 1 < oldestBuffered || lastEventId > currentEventId
+                        || currentEventId - lastEventId > subscriberQueueSize) {
+                    subscription.reset(currentEventId);
+                } else {
+                    for (long id = lastEventId + 1; id <= currentEventId; id++) {
+                        subscription.send(buffer[slot(id)]);
+                    }
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    private void publish(ChangeEventDTO event) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                event.setId(++lastEventId);
+                buffer[slot(event.getId())] = event;
+                subscriptions.forEach(subscription -> subscription.send(event));
+            }
+        });
+    }
+
+    private static ChangeEventDTO taskEvent(ChangeType type, TaskResponseDTO task) {
+        ChangeEventDTO event = new ChangeEventDTO();
+        event.setType(type);
+        event.setEntity(ChangeEntity.TASK);
+        event.setEntityId(task.getId());
+        event.setProjectId(task.getProjectId());
+        event.setStatus(task.getStatus());
+        return event;
+    }
+
+    private static ChangeEventDTO projectEvent(ChangeType type, Long projectId) {
+        ChangeEventDTO event = new ChangeEventDTO();
+        event.setType(type);
+        event.setEntity(ChangeEntity.PROJECT);
+        event.setEntityId(projectId);
+        event.setProjectId(projectId);
+        return event;
+    }
+
+    private int slot(long eventId) {
+        return (int) (eventId % buffer.length);
+    }
+
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private final Long projectId;
+        private final Status status;
+        // Guarded by this subscription; only one drain task runs at a time, which keeps the events in order
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean dropped;
+        private boolean overflowed;
+
+        private Subscription(SseEmitter emitter, Long projectId, Status status) {
+            this.emitter = emitter;
+            this.projectId = projectId;
+            this.status = status;
+        }
+
+        private boolean matches(ChangeEventDTO event) {
+            boolean projectMatches = projectId == null
+                    || projectId.equals(event.getProjectId())
+                    || projectId.equals(event.getPreviousProjectId());
+            boolean statusMatches = status == null
+                    || status == event.getStatus()
+                    || status == event.getPreviousStatus();
+            return projectMatches && statusMatches;
+        }
+
+        private void send(ChangeEventDTO event) {
+            if (matches(event)) {
+                enqueue(SseEmitter.event().id(String.valueOf(event.getId())).name(EVENT_NAME).data(event));
+            }
+        }
+
+        private void reset(long currentEventId) {
+            enqueue(SseEmitter.event().id(String.valueOf(currentEventId)).name(RESET_EVENT_NAME).data(currentEventId));
+        }
+
+        // A full queue means the client stopped reading: it is dropped rather than buffered without limit, and
+        // reconnecting with Last-Event-ID resumes it from the replay buffer (or resets it)
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (dropped) {
+                    return;
+                }
+                if (pending.size() >= subscriberQueueSize) {
+                    dropped = true;
+                    overflowed = true;
+                    pending.clear();
+                    subscriptions.remove(this);
+                    // The drain task is blocked in send; it completes the emitter once that send returns
+                    return;
+                }
+                pending.add(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = pending.poll();
+                    if (event == null) {
+                        draining = false;
+                        if (overflowed) {
+                            break;
+                        }
+                        return;
+                    }
+                }
+                emit(event);
+            }
+            emitter.completeWithError(new IllegalStateException(
+                    "Subscriber fell more than " + subscriberQueueSize + " events behind"));
+        }
+
+        private void emit(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException ex) {
+                synchronized (this) {
+                    dropped = true;
+                    pending.clear();
+                }
+                subscriptions.remove(this);
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package pl.kul.taskmanager.events;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ASSIGNED
+}
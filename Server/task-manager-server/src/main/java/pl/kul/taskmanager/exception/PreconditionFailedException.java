@@ -0,0 +1,7 @@
+package pl.kul.taskmanager.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
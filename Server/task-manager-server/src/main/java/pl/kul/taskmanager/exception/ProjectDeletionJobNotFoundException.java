@@ -0,0 +1,7 @@
+package pl.kul.taskmanager.exception;
+
+public class ProjectDeletionJobNotFoundException extends RuntimeException {
+    public ProjectDeletionJobNotFoundException(String id) {
+        super("Project deletion job not found with ID: " + id);
+    }
+}
@@ -0,0 +1,7 @@
+package pl.kul.taskmanager.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -16,13 +16,20 @@ public class ProjectMapper {
     }
 
     public static ProjectResponseDTO toDTO(Project project) {
+        return toDTO(project, true);
+    }
+
+    // Without tasks the lazy collection is never touched, so no task rows are loaded
+    public static ProjectResponseDTO toDTO(Project project, boolean includeTasks) {
         ProjectResponseDTO dto = new ProjectResponseDTO();
         dto.setId(project.getId());
         dto.setName(project.getName());
         dto.setDescription(project.getDescription());
-        dto.setTasks(project.getTasks().stream()
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList()));
+        if (includeTasks) {
+            dto.setTasks(project.getTasks().stream()
+                    .map(TaskMapper::toDTO)
+                    .collect(Collectors.toList()));
+        }
         return dto;
     }
 }
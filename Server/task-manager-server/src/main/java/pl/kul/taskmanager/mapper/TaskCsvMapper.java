@@ -0,0 +1,33 @@
+package pl.kul.taskmanager.mapper;
+
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+
+public class TaskCsvMapper {
+
+    public static final String HEADER = "id,name,description,priority,status,dueDate,projectId";
+
+    public static String toCsvRow(TaskResponseDTO dto) {
+        return String.join(",",
+                value(dto.getId()),
+                escape(dto.getName()),
+                escape(dto.getDescription()),
+                value(dto.getPriority()),
+                value(dto.getStatus()),
+                value(dto.getDueDate()),
+                value(dto.getProjectId()));
+    }
+
+    private static String value(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -25,6 +25,7 @@ public class TaskMapper {
         dto.setStatus(task.getStatus());
         dto.setDueDate(task.getDueDate());
         dto.setProjectId(task.getProject() != null ? task.getProject().getId() : null);
+        dto.setVersion(task.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,61 @@
+package pl.kul.taskmanager.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Timer of service calls, tagged with class and method; services opt in with @Timed(SERVICE_TIMER) on the type
+    public static final String SERVICE_TIMER = "taskmanager.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public SqlStatementTracker sqlStatementTracker(
+            @Value("${taskmanager.sql.slow-query-threshold:PT0.2S}") Duration slowQueryThreshold) {
+        return new SqlStatementTracker(slowQueryThreshold);
+    }
+
+    // The handler mapping is looked up per request, since MVC infrastructure is created after the filters
+    @Bean
+    public SqlStatementFilter sqlStatementFilter(
+            SqlStatementTracker sqlStatementTracker,
+            MeterRegistry meterRegistry,
+            @Value("${taskmanager.sql.enforce-query-budget:false}") boolean enforce,
+            @Qualifier("requestMappingHandlerMapping") ObjectProvider<HandlerMapping> handlerMapping
+    ) {
+        return new SqlStatementFilter(sqlStatementTracker, meterRegistry, enforce, handlerMapping::getObject);
+    }
+
+    // Static, so the data source can be wrapped without initializing the rest of this configuration early
+    @Bean
+    public static BeanPostProcessor sqlStatementDataSourceProxy(ObjectProvider<SqlStatementTracker> sqlStatementTracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(sqlStatementTracker.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package pl.kul.taskmanager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.ServletRequestPathUtils;
+import pl.kul.taskmanager.exception.QueryBudgetExceededException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Counts and times the SQL statements of each request and compares the count with the handler's @QueryBudget;
+// with enforcement on (tests) an exceeded budget fails the request instead of only being logged.
+// Budgeted responses are then buffered, so the failure replaces the body instead of arriving after it was sent
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_METRIC = "taskmanager.request.statements";
+    public static final String STATEMENTS_TIME_METRIC = "taskmanager.request.statements.time";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private final SqlStatementTracker tracker;
+    private final MeterRegistry meterRegistry;
+    private final boolean enforceBudgets;
+    private final Supplier<HandlerMapping> handlerMapping;
+
+    public SqlStatementFilter(SqlStatementTracker tracker, MeterRegistry meterRegistry, boolean enforceBudgets,
+                              Supplier<HandlerMapping> handlerMapping) {
+        this.tracker = tracker;
+        this.meterRegistry = meterRegistry;
+        this.enforceBudgets = enforceBudgets;
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Only budgeted handlers are buffered; streaming ones (SSE, export) have no budget and keep writing directly
+        ContentCachingResponseWrapper bufferedResponse = enforceBudgets && hasBudget(request)
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+        SqlStatementTracker.RequestStatements statements = tracker.begin(() -> endpoint(request));
+        try {
+            chain.doFilter(request, bufferedResponse != null ? bufferedResponse : response);
+        } finally {
+            tracker.end();
+        }
+
+        String uri = pattern(request);
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getCount());
+        Timer.builder(STATEMENTS_TIME_METRIC)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getElapsedMillis(), TimeUnit.MILLISECONDS);
+
+        checkBudget(request, response, statements);
+        if (bufferedResponse != null) {
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+
+    // Resolves the handler ahead of the dispatcher, with the parsed path it expects, just to read its annotation
+    private boolean hasBudget(HttpServletRequest request) {
+        RequestPath previousPath = ServletRequestPathUtils.hasParsedRequestPath(request)
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : null;
+        ServletRequestPathUtils.parseAndCache(request);
+        try {
+            HandlerExecutionChain handler = handlerMapping.get().getHandler(request);
+            return handler != null && handler.getHandler() instanceof HandlerMethod method
+                    && method.hasMethodAnnotation(QueryBudget.class);
+        } catch (Exception ex) {
+            return false;
+        } finally {
+            ServletRequestPathUtils.setParsedRequestPath(previousPath, request);
+        }
+    }
+
+    private void checkBudget(HttpServletRequest request, HttpServletResponse response,
+                             SqlStatementTracker.RequestStatements statements) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        if (budget == null || statements.getCount() <= budget.value()) {
+            return;
+        }
+
+        String message = statements.getEndpoint() + " executed " + statements.getCount()
+                + " SQL statements, its budget is " + budget.value();
+        if (enforceBudgets) {
+            // Drops the status and headers the handler set; the buffered body is never copied
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static String pattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
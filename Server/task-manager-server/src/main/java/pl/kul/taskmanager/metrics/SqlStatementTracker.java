@@ -0,0 +1,87 @@
+package pl.kul.taskmanager.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Receives every statement executed through the proxied DataSource; statements run outside a request
+// (startup migrations, background jobs) are only checked against the slow query threshold
+public class SqlStatementTracker implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementTracker.class);
+
+    private final ThreadLocal<RequestStatements> current = new ThreadLocal<>();
+    private final long slowQueryThresholdMillis;
+
+    public SqlStatementTracker(Duration slowQueryThreshold) {
+        this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+    }
+
+    public RequestStatements begin(Supplier<String> endpoint) {
+        RequestStatements statements = new RequestStatements(endpoint);
+        current.set(statements);
+        return statements;
+    }
+
+    public void end() {
+        current.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queries) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queries) {
+        RequestStatements statements = current.get();
+        if (statements != null) {
+            statements.record(executionInfo.getElapsedTime());
+        }
+
+        if (executionInfo.getElapsedTime() >= slowQueryThresholdMillis) {
+            // Query texts keep their ? placeholders, bound values never reach the log
+            String sql = queries.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            log.warn("Slow SQL took {} ms{} in {}: {}",
+                    executionInfo.getElapsedTime(),
+                    executionInfo.isBatch() ? " (batch of " + executionInfo.getBatchSize() + ")" : "",
+                    statements != null ? statements.getEndpoint() : "no request",
+                    sql);
+        }
+    }
+
+    public static class RequestStatements {
+
+        private final Supplier<String> endpoint;
+        private int count;
+        private long elapsedMillis;
+
+        RequestStatements(Supplier<String> endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void record(long millis) {
+            count++;
+            elapsedMillis += millis;
+        }
+
+        // Resolved lazily: the handler pattern is only known once the request has been mapped
+        public String getEndpoint() {
+            return endpoint.get();
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
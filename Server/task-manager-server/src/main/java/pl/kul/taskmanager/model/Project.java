@@ -3,10 +3,12 @@ package pl.kul.taskmanager.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,11 +16,11 @@ import java.util.List;
 @Table(name = "projects")
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Project {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+    @SequenceGenerator(name = "project_seq", sequenceName = "project_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -28,6 +30,21 @@ public class Project {
     @Size(max = 500, message = "Description cannot exceed 500 characters")
     private String description;
 
+    // Paged reads initialize the tasks of a whole page with a single IN query instead of one per project
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Task> tasks = new ArrayList<>();
+
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant lastModified;
+
+    public Project(Long id, String name, String description, List<Task> tasks) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.tasks = tasks;
+    }
 }
\ No newline at end of file
@@ -4,10 +4,11 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 
@@ -15,11 +16,12 @@ import java.time.LocalDate;
 @Table(name = "tasks")
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids keep Hibernate JDBC insert batching enabled (IDENTITY disables it)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -40,7 +42,27 @@ public class Task {
     @FutureOrPresent(message = "Due date must be in the future or present")
     private LocalDate dueDate;
 
-    @ManyToOne()
+    // Lazy, so task listings do not load each distinct project in a separate SELECT; responses only need its id,
+    // which the proxy holds without being initialized
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     private Project project;
+
+    @Version
+    private Long version;
+
+    // Set on every insert and update; the newest value of a result set changes whenever any row enters or changes
+    @UpdateTimestamp
+    private Instant lastModified;
+
+    public Task(Long id, String name, String description, Priority priority, Status status, LocalDate dueDate,
+                Project project) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.priority = priority;
+        this.status = status;
+        this.dueDate = dueDate;
+        this.project = project;
+    }
 }
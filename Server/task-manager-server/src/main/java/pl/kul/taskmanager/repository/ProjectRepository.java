@@ -1,8 +1,59 @@
 package pl.kul.taskmanager.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import pl.kul.taskmanager.dto.ProjectSummaryDTO;
 import pl.kul.taskmanager.model.Project;
 
-public interface ProjectRepository extends JpaRepository<Project, Long>, JpaSpecificationExecutor<Project> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ProjectRepository extends JpaRepository<Project, Long>, JpaSpecificationExecutor<Project>,
+        ProjectRepositoryCustom {
+
+    String SUMMARY_SELECT = """
+            select new pl.kul.taskmanager.dto.ProjectSummaryDTO(
+                p.id, p.name, p.description,
+                count(case when t.status = pl.kul.taskmanager.model.Status.TODO then 1 end),
+                count(case when t.status = pl.kul.taskmanager.model.Status.IN_PROGRESS then 1 end),
+                count(case when t.status = pl.kul.taskmanager.model.Status.BLOCKED then 1 end),
+                count(case when t.status = pl.kul.taskmanager.model.Status.DONE then 1 end),
+                min(case when t.status <> pl.kul.taskmanager.model.Status.DONE and t.dueDate >= current_date
+                    then t.dueDate end))
+            from Project p left join p.tasks t
+            """;
+
+    @Override
+    @EntityGraph(attributePaths = "tasks")
+    List<Project> findAll();
+
+    @Query("select p from Project p")
+    Stream<Project> streamAll();
+
+    @Query("select p from Project p")
+    List<Project> findAllWithoutTasks();
+
+    @EntityGraph(attributePaths = "tasks")
+    @Query("select p from Project p where p.id in :ids")
+    List<Project> findAllWithTasksByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id from Project p")
+    List<Long> findAllIds();
+
+    // Removes only the project row; its tasks must already be deleted or detached
+    @Modifying
+    @Query("delete from Project p where p.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + " group by p.id, p.name, p.description order by p.id")
+    List<ProjectSummaryDTO> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + " where p.id = :id group by p.id, p.name, p.description")
+    Optional<ProjectSummaryDTO> findSummaryById(@Param("id") Long id);
 }
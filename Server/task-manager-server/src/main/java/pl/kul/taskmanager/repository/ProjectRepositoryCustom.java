@@ -0,0 +1,17 @@
+package pl.kul.taskmanager.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.model.Project;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProjectRepositoryCustom {
+
+    VersionStampDTO findVersionStamp(Specification<Project> spec);
+
+    Page<Map<String, Object>> findFields(Specification<Project> spec, List<String> fields, Pageable pageable);
+}
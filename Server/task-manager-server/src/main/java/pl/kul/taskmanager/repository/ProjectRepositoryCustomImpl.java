@@ -0,0 +1,34 @@
+package pl.kul.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.model.Project;
+
+import java.util.List;
+import java.util.Map;
+
+public class ProjectRepositoryCustomImpl implements ProjectRepositoryCustom {
+
+    // Response field -> entity attribute; the task collection is never part of a sparse projection
+    private static final Map<String, String> SPARSE_FIELDS = Map.of(
+            "id", "id",
+            "name", "name",
+            "description", "description");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public VersionStampDTO findVersionStamp(Specification<Project> spec) {
+        return VersionStamps.find(entityManager, Project.class, spec);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<Project> spec, List<String> fields, Pageable pageable) {
+        return SparseQueries.find(entityManager, Project.class, SPARSE_FIELDS, fields, spec, pageable);
+    }
+}
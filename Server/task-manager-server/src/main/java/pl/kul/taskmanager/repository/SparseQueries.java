@@ -0,0 +1,116 @@
+package pl.kul.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+final class SparseQueries {
+
+    private SparseQueries() {
+    }
+
+    // Selects only the columns behind the requested fields; rows come back as field -> value maps in request order
+    static <T> Page<Map<String, Object>> find(EntityManager entityManager, Class<T> entityClass,
+                                              Map<String, String> supportedFields, List<String> fields,
+                                              Specification<T> spec, Pageable pageable) {
+        List<String> selectedFields = validate(supportedFields, fields);
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        List<Selection<?>> selections = new ArrayList<>(selectedFields.size());
+        for (String field : selectedFields) {
+            selections.add(path(root, supportedFields.get(field)).alias(field));
+        }
+        query.multiselect(selections);
+
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        if (pageable.getSort().getOrderFor("id") == null) {
+            orders.add(criteriaBuilder.asc(root.get("id")));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Map<String, Object>> rows = typedQuery.getResultList().stream()
+                .map(tuple -> toMap(tuple, selectedFields))
+                .toList();
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(entityManager, entityClass, spec));
+    }
+
+    private static List<String> validate(Map<String, String> supportedFields, List<String> fields) {
+        LinkedHashSet<String> selectedFields = new LinkedHashSet<>();
+        for (String field : fields) {
+            String trimmed = field.trim();
+            if (!supportedFields.containsKey(trimmed)) {
+                throw new IllegalArgumentException("Unsupported field: " + trimmed
+                        + ", supported fields are " + String.join(", ", new TreeSet<>(supportedFields.keySet())));
+            }
+            selectedFields.add(trimmed);
+        }
+        if (selectedFields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested");
+        }
+        return List.copyOf(selectedFields);
+    }
+
+    private static Path<?> path(Root<?> root, String attributePath) {
+        Path<?> path = root;
+        for (String attribute : attributePath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+
+    private static <T> long count(EntityManager entityManager, Class<T> entityClass, Specification<T> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(entityClass);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query.select(criteriaBuilder.count(root))).getSingleResult();
+    }
+}
@@ -1,8 +1,60 @@
 package pl.kul.taskmanager.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import pl.kul.taskmanager.dto.TaskCountDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
 import pl.kul.taskmanager.model.Task;
 
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
+
+    String STATE_SELECT = """
+            select new pl.kul.taskmanager.dto.TaskResponseDTO(
+                t.id, t.name, t.description, t.priority, t.status, t.dueDate, p.id, t.version)
+            from Task t left join t.project p
+            """;
+
+    @Query(STATE_SELECT + " where t.id = :id")
+    Optional<TaskResponseDTO> findStateById(@Param("id") Long id);
+
+    @Query(STATE_SELECT + " where t.id in :ids")
+    List<TaskResponseDTO> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(STATE_SELECT + " where p.id = :projectId")
+    List<TaskResponseDTO> findStatesByProjectId(@Param("projectId") Long projectId);
+
+    @Query(STATE_SELECT + " where p.id = :projectId")
+    List<TaskResponseDTO> findStatesByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+
+    long countByProjectId(Long projectId);
+
+    // Set-based statements skip cascades and entity loading; callers keep caches, statistics and events in step
+    @Modifying
+    @Query("delete from Task t where t.id in :ids")
+    int deleteRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Only tasks still assigned to the given project are detached, the rest of the ids are left alone
+    @Modifying
+    @Query("""
+            update Task t set t.project = null, t.version = t.version + 1, t.lastModified = :now
+            where t.project.id = :projectId and t.id in :ids
+            """)
+    int detachFromProject(@Param("projectId") Long projectId, @Param("ids") Collection<Long> ids,
+                          @Param("now") Instant now);
+
+    @Query("""
+            select new pl.kul.taskmanager.dto.TaskCountDTO(t.status, t.priority, t.dueDate, p.id, count(t))
+            from Task t left join t.project p
+            group by t.status, t.priority, t.dueDate, p.id
+            """)
+    List<TaskCountDTO> countGroupedByState();
 }
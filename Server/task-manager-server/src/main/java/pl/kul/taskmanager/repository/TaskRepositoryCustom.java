@@ -0,0 +1,27 @@
+package pl.kul.taskmanager.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.model.Task;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+
+    Stream<TaskResponseDTO> streamAll(Specification<Task> spec, int fetchSize);
+
+    Page<TaskResponseDTO> findStates(Specification<Task> spec, Pageable pageable);
+
+    Page<Map<String, Object>> findFields(Specification<Task> spec, List<String> fields, Pageable pageable);
+
+    VersionStampDTO findVersionStamp(Specification<Task> spec);
+
+    int updateFields(Long id, Long expectedVersion, Map<String, Object> changes);
+
+    int updateFieldsByVersions(Map<Long, Long> expectedVersions, Map<String, Object> changes);
+}
@@ -0,0 +1,175 @@
+package pl.kul.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.model.Project;
+import pl.kul.taskmanager.model.Task;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    // Response field -> entity attribute; projectId reads the foreign key column without joining the project
+    private static final Map<String, String> SPARSE_FIELDS = Map.of(
+            "id", "id",
+            "name", "name",
+            "description", "description",
+            "priority", "priority",
+            "status", "status",
+            "dueDate", "dueDate",
+            "projectId", "project.id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows are projected straight into DTOs, so nothing accumulates in the persistence context while streaming
+    @Override
+    public Stream<TaskResponseDTO> streamAll(Specification<Task> spec, int fetchSize) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponseDTO> query = criteriaBuilder.createQuery(TaskResponseDTO.class);
+        Root<Task> root = query.from(Task.class);
+        Join<Task, Project> project = root.join("project", JoinType.LEFT);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.select(selectState(criteriaBuilder, root, project.get("id")));
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // The project id comes from the foreign key column, so filtering by project stays on the project_id index
+    @Override
+    public Page<TaskResponseDTO> findStates(Specification<Task> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponseDTO> query = criteriaBuilder.createQuery(TaskResponseDTO.class);
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.select(selectState(criteriaBuilder, root, root.get("project").get("id")));
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        if (pageable.getSort().getOrderFor("id") == null) {
+            orders.add(criteriaBuilder.asc(root.get("id")));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<TaskResponseDTO> typedQuery = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<Task> spec, List<String> fields, Pageable pageable) {
+        return SparseQueries.find(entityManager, Task.class, SPARSE_FIELDS, fields, spec, pageable);
+    }
+
+    @Override
+    public VersionStampDTO findVersionStamp(Specification<Task> spec) {
+        return VersionStamps.find(entityManager, Task.class, spec);
+    }
+
+    // Version and lastModified are maintained here because bulk updates bypass Hibernate's entity lifecycle
+    @Override
+    public int updateFields(Long id, Long expectedVersion, Map<String, Object> changes) {
+        return update(changes, (root, criteriaBuilder) -> {
+            Predicate predicate = criteriaBuilder.equal(root.get("id"), id);
+            return expectedVersion == null
+                    ? predicate
+                    : criteriaBuilder.and(predicate, criteriaBuilder.equal(root.get("version"), expectedVersion));
+        });
+    }
+
+    // Ids are grouped by their expected version, so rows read at the same version share one IN list
+    @Override
+    public int updateFieldsByVersions(Map<Long, Long> expectedVersions, Map<String, Object> changes) {
+        Map<Long, List<Long>> idsByVersion = expectedVersions.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        return update(changes, (root, criteriaBuilder) -> criteriaBuilder.or(idsByVersion.entrySet().stream()
+                .map(entry -> criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("version"), entry.getKey()),
+                        root.get("id").in(entry.getValue())))
+                .toArray(Predicate[]::new)));
+    }
+
+    private int update(Map<String, Object> changes, BiFunction<Root<Task>, CriteriaBuilder, Predicate> where) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = criteriaBuilder.createCriteriaUpdate(Task.class);
+        Root<Task> root = update.from(Task.class);
+
+        changes.forEach((attribute, value) -> {
+            if (value == null) {
+                setNull(update, root.get(attribute), criteriaBuilder);
+            } else {
+                update.set(attribute, value);
+            }
+        });
+        Path<Long> version = root.get("version");
+        update.set(version, criteriaBuilder.sum(version, 1L));
+        update.set(root.<Instant>get("lastModified"), Instant.now());
+        update.where(where.apply(root, criteriaBuilder));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private long count(Specification<Task> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query.select(criteriaBuilder.count(root))).getSingleResult();
+    }
+
+    private static CompoundSelection<TaskResponseDTO> selectState(CriteriaBuilder criteriaBuilder, Root<Task> root,
+                                                                  Path<?> projectId) {
+        return criteriaBuilder.construct(TaskResponseDTO.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("description"),
+                root.get("priority"),
+                root.get("status"),
+                root.get("dueDate"),
+                projectId,
+                root.get("version"));
+    }
+
+    private static <Y> void setNull(CriteriaUpdate<Task> update, Path<Y> path, CriteriaBuilder criteriaBuilder) {
+        update.set(path, criteriaBuilder.nullLiteral(path.getJavaType()));
+    }
+}
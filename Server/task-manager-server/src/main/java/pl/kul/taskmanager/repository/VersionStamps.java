@@ -0,0 +1,36 @@
+package pl.kul.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+
+import java.time.Instant;
+
+final class VersionStamps {
+
+    private VersionStamps() {
+    }
+
+    // One aggregate row over the matching entities, without loading any of them
+    static <T> VersionStampDTO find(EntityManager entityManager, Class<T> entityClass, Specification<T> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VersionStampDTO> query = criteriaBuilder.createQuery(VersionStampDTO.class);
+        Root<T> root = query.from(entityClass);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.select(criteriaBuilder.construct(VersionStampDTO.class,
+                criteriaBuilder.count(root),
+                criteriaBuilder.sum(root.<Long>get("version")),
+                criteriaBuilder.greatest(root.<Instant>get("lastModified"))));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
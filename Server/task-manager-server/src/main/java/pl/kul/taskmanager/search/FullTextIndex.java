@@ -0,0 +1,232 @@
+package pl.kul.taskmanager.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pl.kul.taskmanager.transaction.AfterCommit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class FullTextIndex implements DisposableBean {
+
+    public static final String NAME = "name";
+    public static final String DESCRIPTION = "description";
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final float NAME_BOOST = 2.0f;
+
+    private final boolean routingEnabled;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public FullTextIndex(@Value("${taskmanager.search.full-text-routing:false}") boolean routingEnabled) throws IOException {
+        this.routingEnabled = routingEnabled;
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public boolean isRoutingEnabled() {
+        return routingEnabled;
+    }
+
+    public void index(IndexedType type, Long id, String name, String description) {
+        try (Batch batch = batch()) {
+            batch.index(type, id, name, description);
+        }
+    }
+
+    public void remove(IndexedType type, Long id) {
+        try (Batch batch = batch()) {
+            batch.remove(type, id);
+        }
+    }
+
+    public void clear(IndexedType type) {
+        try (Batch batch = batch()) {
+            batch.clear(type);
+        }
+    }
+
+    // Writes made through a batch are applied together when it is closed, with a single searcher reopen;
+    // inside a transaction that happens after commit, so a rolled back write never reaches the index
+    public Batch batch() {
+        return new Batch(true);
+    }
+
+    // For rebuilds from committed rows: writes go to the index as they are made instead of being held until commit
+    Batch directBatch() {
+        return new Batch(false);
+    }
+
+    // Returns matching ids ordered by relevance; every keyword must match a word or word prefix in one of the fields
+    public List<Long> search(IndexedType type, String text, int limit, String... fields) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(TYPE, type.name())), BooleanClause.Occur.FILTER);
+        for (String term : terms) {
+            BooleanQuery.Builder termQuery = new BooleanQuery.Builder();
+            for (String field : fields) {
+                float boost = NAME.equals(field) ? NAME_BOOST : 1.0f;
+                termQuery.add(new BoostQuery(new TermQuery(new Term(field, term)), 2 * boost), BooleanClause.Occur.SHOULD);
+                termQuery.add(new BoostQuery(new PrefixQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD);
+            }
+            query.add(termQuery.build(), BooleanClause.Occur.MUST);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query.build(), limit);
+                List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    ids.add(searcher.storedFields().document(scoreDoc.doc).getField(ID).numericValue().longValue());
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Returns every matching id, or empty when the text has no searchable words or more than maxHits documents match
+    public Optional<List<Long>> searchAll(IndexedType type, String text, int maxHits, String... fields) {
+        if (analyze(text).isEmpty()) {
+            return Optional.empty();
+        }
+        List<Long> ids = search(type, text, maxHits + 1, fields);
+        return ids.size() > maxHits ? Optional.empty() : Optional.of(ids);
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(attribute.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return terms;
+    }
+
+    // Applies the operations and makes them searchable with one searcher reopen
+    private void apply(List<IndexOperation> operations) {
+        operations.forEach(FullTextIndex::execute);
+        refresh();
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void execute(IndexOperation operation) {
+        try {
+            operation.apply();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String key(IndexedType type, Long id) {
+        return type.name() + ":" + id;
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation {
+        void apply() throws IOException;
+    }
+
+    public final class Batch implements AutoCloseable {
+
+        private final boolean afterCommit;
+        private final List<IndexOperation> operations = new ArrayList<>();
+
+        private Batch(boolean afterCommit) {
+            this.afterCommit = afterCommit;
+        }
+
+        public void index(IndexedType type, Long id, String name, String description) {
+            Document document = new Document();
+            document.add(new StringField(KEY, key(type, id), Field.Store.NO));
+            document.add(new StringField(TYPE, type.name(), Field.Store.NO));
+            document.add(new StoredField(ID, id));
+            document.add(new TextField(NAME, name != null ? name : "", Field.Store.NO));
+            document.add(new TextField(DESCRIPTION, description != null ? description : "", Field.Store.NO));
+
+            add(() -> writer.updateDocument(new Term(KEY, key(type, id)), document));
+        }
+
+        public void remove(IndexedType type, Long id) {
+            add(() -> writer.deleteDocuments(new Term(KEY, key(type, id))));
+        }
+
+        public void clear(IndexedType type) {
+            add(() -> writer.deleteDocuments(new Term(TYPE, type.name())));
+        }
+
+        @Override
+        public void close() {
+            if (afterCommit) {
+                List<IndexOperation> pending = List.copyOf(operations);
+                if (!pending.isEmpty()) {
+                    AfterCommit.run(() -> apply(pending));
+                }
+            } else {
+                refresh();
+            }
+        }
+
+        private void add(IndexOperation operation) {
+            if (afterCommit) {
+                operations.add(operation);
+            } else {
+                execute(operation);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        analyzer.close();
+    }
+}
@@ -0,0 +1,58 @@
+package pl.kul.taskmanager.search;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.model.Project;
+import pl.kul.taskmanager.repository.ProjectRepository;
+import pl.kul.taskmanager.repository.TaskRepository;
+
+import java.util.stream.Stream;
+
+// Runs once all singletons exist but before the embedded web server starts accepting requests,
+// so routed searches never see a partially built index
+@Component
+public class FullTextIndexInitializer implements SmartInitializingSingleton {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final FullTextIndex fullTextIndex;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public FullTextIndexInitializer(FullTextIndex fullTextIndex, TaskRepository taskRepository,
+                                    ProjectRepository projectRepository, PlatformTransactionManager transactionManager) {
+        this.fullTextIndex = fullTextIndex;
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Rows read here are already committed, so they are written straight away rather than held in memory
+            try (FullTextIndex.Batch batch = fullTextIndex.directBatch()) {
+                batch.clear(IndexedType.TASK);
+                try (Stream<TaskResponseDTO> tasks = taskRepository.streamAll(Specification.where(null), FETCH_SIZE)) {
+                    tasks.forEach(task -> batch.index(IndexedType.TASK, task.getId(), task.getName(), task.getDescription()));
+                }
+
+                batch.clear(IndexedType.PROJECT);
+                try (Stream<Project> projects = projectRepository.streamAll()) {
+                    projects.forEach(project ->
+                            batch.index(IndexedType.PROJECT, project.getId(), project.getName(), project.getDescription()));
+                }
+            }
+        });
+    }
+}
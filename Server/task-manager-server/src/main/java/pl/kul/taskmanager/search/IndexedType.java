@@ -0,0 +1,6 @@
+package pl.kul.taskmanager.search;
+
+public enum IndexedType {
+    TASK,
+    PROJECT
+}
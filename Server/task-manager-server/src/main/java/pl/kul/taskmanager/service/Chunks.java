@@ -0,0 +1,46 @@
+package pl.kul.taskmanager.service;
+
+import pl.kul.taskmanager.dto.BatchFetchResponseDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+final class Chunks {
+
+    // Keeps IN lists and UPDATE batches well below database parameter limits
+    static final int DEFAULT_SIZE = 1_000;
+
+    private Chunks() {
+    }
+
+    static List<Long> distinctIds(List<Long> ids, int max) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.size() > max) {
+            throw new IllegalArgumentException("Cannot process more than " + max + " ids at once");
+        }
+        return distinctIds;
+    }
+
+    // Looks distinct ids up one chunk at a time and reports them in the requested order, missing ones included
+    static <T> BatchFetchResponseDTO<T> lookup(List<Long> ids, int max, Function<List<Long>, List<T>> finder,
+                                               Function<T, Long> idOf) {
+        List<Long> distinctIds = distinctIds(ids, max);
+        Map<Long, T> found = new HashMap<>(distinctIds.size());
+        for (List<Long> chunk : of(distinctIds, DEFAULT_SIZE)) {
+            finder.apply(chunk).forEach(item -> found.put(idOf.apply(item), item));
+        }
+        return BatchFetchResponseDTO.of(distinctIds, found);
+    }
+
+    static <T> List<List<T>> of(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>((items.size() + size - 1) / size);
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,232 @@
+package pl.kul.taskmanager.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kul.taskmanager.cache.CacheEvictor;
+import pl.kul.taskmanager.dto.ProjectDeletionJobDTO;
+import pl.kul.taskmanager.dto.ProjectDeletionStatus;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.events.ChangeFeed;
+import pl.kul.taskmanager.exception.ProjectDeletionJobNotFoundException;
+import pl.kul.taskmanager.exception.ProjectNotFoundException;
+import pl.kul.taskmanager.metrics.MetricsConfig;
+import pl.kul.taskmanager.repository.ProjectRepository;
+import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.search.FullTextIndex;
+import pl.kul.taskmanager.search.IndexedType;
+import pl.kul.taskmanager.stats.TaskStatistics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+// Deletes projects with set-based statements instead of letting the tasks cascade load and remove row by row
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ProjectDeletionService implements DisposableBean {
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final FullTextIndex fullTextIndex;
+    private final CacheEvictor cacheEvictor;
+    private final TaskStatistics taskStatistics;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long asyncThreshold;
+    private final Duration retention;
+    private final Map<String, ProjectDeletionJobDTO> jobs = new ConcurrentHashMap<>();
+    // Project id to the id of its queued or running deletion; claimed atomically so a project has one at a time
+    private final Map<Long, String> activeJobs = new ConcurrentHashMap<>();
+    // One job at a time keeps background deletions from competing with request traffic for connections
+    private final ExecutorService worker;
+
+    public ProjectDeletionService(ProjectRepository projectRepository, TaskRepository taskRepository,
+                                  FullTextIndex fullTextIndex, CacheEvictor cacheEvictor, TaskStatistics taskStatistics,
+                                  ChangeFeed changeFeed, PlatformTransactionManager transactionManager,
+                                  @Value("${taskmanager.projects.deletion.chunk-size:1000}") int chunkSize,
+                                  @Value("${taskmanager.projects.deletion.async-threshold:5000}") long asyncThreshold,
+                                  @Value("${taskmanager.projects.deletion.retention:PT1H}") Duration retention,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.fullTextIndex = fullTextIndex;
+        this.cacheEvictor = cacheEvictor;
+        this.taskStatistics = taskStatistics;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.asyncThreshold = asyncThreshold;
+        this.retention = retention;
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        this.worker = Executors.newSingleThreadExecutor(threads.name("project-deletion").factory());
+    }
+
+    // Small projects are removed in one transaction; larger ones, or any with async set, go to a job clients can poll.
+    // A deletion already in flight for the project, synchronous or not, is returned instead of starting another.
+    public ProjectDeletionJobDTO deleteProject(Long id, boolean detachTasks, boolean async) {
+        long totalTasks = taskRepository.countByProjectId(id);
+        boolean inline = !async && totalTasks <= asyncThreshold;
+        ProjectDeletionJobDTO job = new ProjectDeletionJobDTO(UUID.randomUUID().toString(), id, detachTasks,
+                inline ? ProjectDeletionStatus.RUNNING : ProjectDeletionStatus.QUEUED, totalTasks, 0, null,
+                Instant.now(), null);
+
+        removeExpiredJobs();
+        String owner = activeJobs.compute(id, (_, current) -> {
+            if (current != null) {
+                return current;
+            }
+            jobs.put(job.getId(), copy(job));
+            return job.getId();
+        });
+        if (!owner.equals(job.getId())) {
+            return copy(jobs.get(owner));
+        }
+        // Checked only once the project is claimed, so a deletion that finished just before cannot run twice
+        if (!projectRepository.existsById(id)) {
+            jobs.remove(job.getId());
+            activeJobs.remove(id, job.getId());
+            throw new ProjectNotFoundException(id);
+        }
+
+        if (inline) {
+            ProjectDeletionJobDTO finished = null;
+            try {
+                transactionTemplate.executeWithoutResult(_ -> {
+                    int processed;
+                    do {
+                        processed = deleteChunk(job);
+                        job.setProcessedTasks(job.getProcessedTasks() + processed);
+                    } while (processed == chunkSize);
+                });
+                finished = finish(job, ProjectDeletionStatus.COMPLETED, null);
+                return finished;
+            } catch (RuntimeException ex) {
+                finished = finish(job, ProjectDeletionStatus.FAILED, ex.getMessage());
+                throw ex;
+            } finally {
+                release(job, finished);
+            }
+        }
+
+        try {
+            worker.execute(() -> runJob(job));
+        } catch (RejectedExecutionException ex) {
+            release(job, finish(job, ProjectDeletionStatus.FAILED, "Deletion worker is shut down"));
+            throw ex;
+        }
+        return copy(job);
+    }
+
+    public ProjectDeletionJobDTO getJob(String jobId) {
+        ProjectDeletionJobDTO job = jobs.get(jobId);
+        if (job == null) {
+            throw new ProjectDeletionJobNotFoundException(jobId);
+        }
+        return copy(job);
+    }
+
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+    }
+
+    // Each chunk commits on its own, so pollers see progress and a failure keeps the chunks already done.
+    // The worker owns the job; pollers only ever read the snapshots published into the map.
+    private void runJob(ProjectDeletionJobDTO job) {
+        ProjectDeletionJobDTO finished = null;
+        try {
+            job.setStatus(ProjectDeletionStatus.RUNNING);
+            jobs.put(job.getId(), copy(job));
+            int processed;
+            do {
+                processed = transactionTemplate.execute(_ -> deleteChunk(job));
+                job.setProcessedTasks(job.getProcessedTasks() + processed);
+                jobs.put(job.getId(), copy(job));
+            } while (processed == chunkSize && !Thread.currentThread().isInterrupted());
+
+            finished = processed == chunkSize
+                    ? finish(job, ProjectDeletionStatus.FAILED, "Interrupted before the project was drained")
+                    : finish(job, ProjectDeletionStatus.COMPLETED, null);
+        } catch (RuntimeException ex) {
+            finished = finish(job, ProjectDeletionStatus.FAILED, ex.getMessage());
+        } finally {
+            release(job, finished);
+        }
+    }
+
+    // Handles up to one chunk of tasks; the chunk that finds the project drained also removes the project row
+    private int deleteChunk(ProjectDeletionJobDTO job) {
+        Long projectId = job.getProjectId();
+        List<TaskResponseDTO> tasks = taskRepository.findStatesByProjectId(projectId, PageRequest.ofSize(chunkSize));
+        List<Long> ids = tasks.stream().map(TaskResponseDTO::getId).toList();
+
+        if (!ids.isEmpty()) {
+            if (job.isDetachTasks()) {
+                taskRepository.detachFromProject(projectId, ids, Instant.now());
+                for (TaskResponseDTO before : tasks) {
+                    TaskResponseDTO after = new TaskResponseDTO(before.getId(), before.getName(),
+                            before.getDescription(), before.getPriority(), before.getStatus(), before.getDueDate(), null);
+                    taskStatistics.taskUpdated(before, after);
+                    changeFeed.taskAssigned(after, projectId);
+                }
+            } else {
+                taskRepository.deleteRowsByIdIn(ids);
+                try (FullTextIndex.Batch batch = fullTextIndex.batch()) {
+                    ids.forEach(taskId -> batch.remove(IndexedType.TASK, taskId));
+                }
+                tasks.forEach(taskStatistics::taskDeleted);
+                tasks.forEach(changeFeed::taskDeleted);
+            }
+            cacheEvictor.evictTasks(ids);
+            cacheEvictor.evictProject(projectId);
+        }
+
+        if (ids.size() < chunkSize) {
+            projectRepository.deleteRowById(projectId);
+            cacheEvictor.evictProject(projectId);
+            taskStatistics.projectDeleted(projectId, List.of());
+            changeFeed.projectDeleted(projectId);
+            fullTextIndex.remove(IndexedType.PROJECT, projectId);
+        }
+        return ids.size();
+    }
+
+    // The final snapshot is published before the project is released, so a caller that finds the project claimed
+    // always finds its job in the map
+    private void release(ProjectDeletionJobDTO job, ProjectDeletionJobDTO finished) {
+        jobs.put(job.getId(), finished != null
+                ? finished
+                : finish(job, ProjectDeletionStatus.FAILED, "Deletion stopped unexpectedly"));
+        activeJobs.remove(job.getProjectId(), job.getId());
+    }
+
+    private void removeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static ProjectDeletionJobDTO finish(ProjectDeletionJobDTO job, ProjectDeletionStatus status, String error) {
+        ProjectDeletionJobDTO finished = copy(job);
+        finished.setStatus(status);
+        finished.setError(error);
+        finished.setFinishedAt(Instant.now());
+        return finished;
+    }
+
+    private static ProjectDeletionJobDTO copy(ProjectDeletionJobDTO job) {
+        return new ProjectDeletionJobDTO(job.getId(), job.getProjectId(), job.isDetachTasks(), job.getStatus(),
+                job.getTotalTasks(), job.getProcessedTasks(), job.getError(), job.getStartedAt(), job.getFinishedAt());
+    }
+}
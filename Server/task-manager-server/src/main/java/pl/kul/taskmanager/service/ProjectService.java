@@ -1,67 +1,283 @@
 package pl.kul.taskmanager.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import pl.kul.taskmanager.cache.CacheConfig;
+import pl.kul.taskmanager.cache.CacheEvictor;
+import pl.kul.taskmanager.dto.BatchFetchResponseDTO;
 import pl.kul.taskmanager.dto.ProjectRequestDTO;
 import pl.kul.taskmanager.dto.ProjectResponseDTO;
+import pl.kul.taskmanager.dto.ProjectSummaryDTO;
+import pl.kul.taskmanager.dto.TaskAssignmentResponseDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.events.ChangeFeed;
 import pl.kul.taskmanager.exception.ProjectNotFoundException;
 import pl.kul.taskmanager.exception.TaskNotFoundException;
 import pl.kul.taskmanager.mapper.ProjectMapper;
+import pl.kul.taskmanager.metrics.MetricsConfig;
+import pl.kul.taskmanager.model.Priority;
 import pl.kul.taskmanager.model.Project;
+import pl.kul.taskmanager.model.Status;
 import pl.kul.taskmanager.model.Task;
 import pl.kul.taskmanager.repository.ProjectRepository;
 import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.search.FullTextIndex;
+import pl.kul.taskmanager.search.IndexedType;
 import pl.kul.taskmanager.specification.ProjectSpecification;
+import pl.kul.taskmanager.specification.TaskSpecification;
+import pl.kul.taskmanager.stats.TaskStatistics;
 
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ProjectService {
 
+    private static final int MAX_FULL_TEXT_CANDIDATES = 10_000;
+    private static final int MAX_LOOKUP_IDS = 10_000;
+    private static final String TASK_PROJECT = "project";
+
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
+    private final FullTextIndex fullTextIndex;
+    private final CacheEvictor cacheEvictor;
+    private final TaskStatistics taskStatistics;
+    private final ChangeFeed changeFeed;
 
-    public ProjectService(ProjectRepository projectRepository, TaskRepository taskRepository) {
+    public ProjectService(ProjectRepository projectRepository, TaskRepository taskRepository,
+                          FullTextIndex fullTextIndex, CacheEvictor cacheEvictor, TaskStatistics taskStatistics,
+                          ChangeFeed changeFeed) {
         this.projectRepository = projectRepository;
         this.taskRepository = taskRepository;
+        this.fullTextIndex = fullTextIndex;
+        this.cacheEvictor = cacheEvictor;
+        this.taskStatistics = taskStatistics;
+        this.changeFeed = changeFeed;
     }
 
+    @Transactional
     public ProjectResponseDTO createProject(ProjectRequestDTO dto) {
         Project project = mapAndValidateProject(dto);
         Project saved = saveProject(project);
+        indexProject(saved);
+        taskStatistics.projectCreated(saved.getId());
+        changeFeed.projectCreated(saved.getId());
         return ProjectMapper.toDTO(saved);
     }
 
-    public List<ProjectResponseDTO> getAllProjects() {
-        return projectRepository.findAll().stream()
-                .map(ProjectMapper::toDTO)
+    public List<ProjectResponseDTO> getAllProjects(boolean includeTasks) {
+        List<Project> projects = includeTasks ? projectRepository.findAll() : projectRepository.findAllWithoutTasks();
+        return projects.stream()
+                .map(project -> ProjectMapper.toDTO(project, includeTasks))
                 .collect(Collectors.toList());
     }
 
-    public ProjectResponseDTO getProjectById(Long id) {
+    // Sparse reads select only the requested project columns and never touch the task collection
+    public List<Map<String, Object>> getAllProjects(List<String> fields) {
+        return projectRepository.findFields(Specification.where(null), fields, Pageable.unpaged()).getContent();
+    }
+
+    public BatchFetchResponseDTO<ProjectResponseDTO> getProjectsByIds(List<Long> ids, boolean includeTasks) {
+        return Chunks.lookup(ids, MAX_LOOKUP_IDS, chunk -> {
+            List<Project> projects = includeTasks
+                    ? projectRepository.findAllWithTasksByIdIn(chunk)
+                    : projectRepository.findAllById(chunk);
+            return projects.stream().map(project -> ProjectMapper.toDTO(project, includeTasks)).toList();
+        }, ProjectResponseDTO::getId);
+    }
+
+    // Only the full representation is cached; the one without tasks is a single primary key read anyway
+    @Cacheable(cacheNames = CacheConfig.PROJECTS, key = "#id", condition = "#includeTasks")
+    public ProjectResponseDTO getProjectById(Long id, boolean includeTasks) {
         Project project = findProjectById(id);
-        return ProjectMapper.toDTO(project);
+        return ProjectMapper.toDTO(project, includeTasks);
+    }
+
+    public Map<String, Object> getProjectById(Long id, List<String> fields) {
+        return projectRepository.findFields(ProjectSpecification.hasId(id), fields, Pageable.unpaged()).stream()
+                .findFirst()
+                .orElseThrow(() -> new ProjectNotFoundException(id));
+    }
+
+    public Page<TaskResponseDTO> getProjectTasks(Long projectId, Status status, Priority priority,
+                                                 LocalDate dueDateFrom, LocalDate dueDateTo, Pageable pageable) {
+        Specification<Task> spec = buildProjectTasksSpecification(projectId, status, priority, dueDateFrom, dueDateTo);
+        Page<TaskResponseDTO> tasks = taskRepository.findStates(spec, pageable);
+        if (tasks.isEmpty() && !projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException(projectId);
+        }
+        return tasks;
+    }
+
+    public VersionStampDTO getProjectTasksVersionStamp(Long projectId, Status status, Priority priority,
+                                                       LocalDate dueDateFrom, LocalDate dueDateTo) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException(projectId);
+        }
+        return taskRepository.findVersionStamp(
+                buildProjectTasksSpecification(projectId, status, priority, dueDateFrom, dueDateTo));
+    }
+
+    // Projects embed their tasks, so the stamps cover both the projects and the tasks assigned to them
+    public VersionStampDTO getProjectVersionStamp(Long id) {
+        VersionStampDTO stamp = projectRepository.findVersionStamp(ProjectSpecification.hasId(id));
+        if (stamp.getCount() == 0) {
+            throw new ProjectNotFoundException(id);
+        }
+        return stamp.combine(taskRepository.findVersionStamp(TaskSpecification.belongsToProject(id)));
+    }
+
+    public VersionStampDTO getProjectsVersionStamp() {
+        return getProjectsVersionStamp(null, null, null);
+    }
+
+    public VersionStampDTO getProjectsVersionStamp(Long id, String name, String description) {
+        Specification<Project> spec = buildSearchSpecification(id, name, description);
+        return projectRepository.findVersionStamp(spec)
+                .combine(taskRepository.findVersionStamp(TaskSpecification.belongsToProjectMatching(spec)));
+    }
+
+    public List<ProjectSummaryDTO> getAllProjectSummaries() {
+        return projectRepository.findAllSummaries();
+    }
+
+    public ProjectSummaryDTO getProjectSummaryById(Long id) {
+        return projectRepository.findSummaryById(id)
+                .orElseThrow(() -> new ProjectNotFoundException(id));
     }
 
     public ProjectResponseDTO updateProject(Long id, ProjectRequestDTO dto) {
         Project project = findProjectById(id);
         updateProjectDetails(project, dto);
         Project savedProject = saveProject(project);
+        indexProject(savedProject);
+        cacheEvictor.evictProject(id);
+        changeFeed.projectUpdated(id);
         return ProjectMapper.toDTO(savedProject);
     }
 
-    public void deleteProject(Long id) {
-        if (!projectRepository.existsById(id)) {
-            throw new ProjectNotFoundException(id);
+    public List<ProjectResponseDTO> searchProjectsByText(String query, int limit) {
+        List<Long> rankedIds = fullTextIndex.search(IndexedType.PROJECT, query, limit,
+                FullTextIndex.NAME, FullTextIndex.DESCRIPTION);
+        Map<Long, Project> projects = projectRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+
+        return rankedIds.stream()
+                .map(projects::get)
+                .filter(Objects::nonNull)
+                .map(ProjectMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public Page<ProjectResponseDTO> searchProjects(Long id, String name, String description, boolean includeTasks,
+                                                   Pageable pageable) {
+        Specification<Project> spec = buildSearchSpecification(id, name, description);
+
+        Page<Project> projects = projectRepository.findAll(spec, pageable);
+        return projects.map(project -> ProjectMapper.toDTO(project, includeTasks));
+    }
+
+    public Page<Map<String, Object>> searchProjects(Long id, String name, String description, List<String> fields,
+                                                    Pageable pageable) {
+        Specification<Project> spec = buildSearchSpecification(id, name, description);
+        return projectRepository.findFields(spec, fields, pageable);
+    }
+
+    // Moving a task is a single UPDATE of its foreign key; the project's task collection is only read for the response
+    @Transactional
+    public ProjectResponseDTO addTaskToProject(Long projectId, Long taskId, boolean includeTasks) {
+        TaskAssignmentResponseDTO result = assignTasksToProject(projectId, List.of(taskId));
+        if (!result.getMissingIds().isEmpty()) {
+            throw new TaskNotFoundException(taskId);
         }
-        projectRepository.deleteById(id);
+        return loadProject(projectId, includeTasks);
     }
 
-    public Page<ProjectResponseDTO> searchProjects(Long id, String name, String description, Pageable pageable) {
+    @Transactional
+    public ProjectResponseDTO removeTaskFromProject(Long projectId, Long taskId, boolean includeTasks) {
+        TaskAssignmentResponseDTO result = unassignTasksFromProject(projectId, List.of(taskId));
+        if (!result.getMissingIds().isEmpty()) {
+            throw new TaskNotFoundException(taskId);
+        }
+        if (result.getUnchanged() > 0) {
+            throw new IllegalArgumentException("Task is not assigned to this project.");
+        }
+        return loadProject(projectId, includeTasks);
+    }
+
+    @Transactional
+    public TaskAssignmentResponseDTO assignTasksToProject(Long projectId, List<Long> taskIds) {
+        return reassignTasks(projectId, taskIds, true);
+    }
+
+    @Transactional
+    public TaskAssignmentResponseDTO unassignTasksFromProject(Long projectId, List<Long> taskIds) {
+        return reassignTasks(projectId, taskIds, false);
+    }
+
+    // Tasks already in the requested state are reported as unchanged and are not touched by the UPDATE
+    private TaskAssignmentResponseDTO reassignTasks(Long projectId, List<Long> taskIds, boolean assign) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException(projectId);
+        }
+        BatchFetchResponseDTO<TaskResponseDTO> lookup = Chunks.lookup(taskIds, MAX_LOOKUP_IDS,
+                taskRepository::findStatesByIdIn, TaskResponseDTO::getId);
+
+        List<TaskResponseDTO> moved = lookup.getItems().stream()
+                .filter(task -> assign != projectId.equals(task.getProjectId()))
+                .toList();
+        List<Long> movedIds = moved.stream().map(TaskResponseDTO::getId).toList();
+        // A reference is enough to bind the foreign key, it never loads the project row
+        Map<String, Object> changes = Collections.singletonMap(TASK_PROJECT,
+                assign ? projectRepository.getReferenceById(projectId) : null);
+        // Rows are only moved at the version they were read at, so the project each task leaves is the one
+        // reported to statistics and the change feed; a task moved in between rolls the whole request back
+        int updated = 0;
+        for (List<TaskResponseDTO> chunk : Chunks.of(moved, Chunks.DEFAULT_SIZE)) {
+            Map<Long, Long> expectedVersions = new HashMap<>(chunk.size());
+            chunk.forEach(task -> expectedVersions.put(task.getId(), task.getVersion()));
+            int chunkUpdated = taskRepository.updateFieldsByVersions(expectedVersions, changes);
+            if (chunkUpdated != expectedVersions.size()) {
+                throw new ObjectOptimisticLockingFailureException(
+                        "Tasks were modified concurrently during the reassignment", null);
+            }
+            updated += chunkUpdated;
+        }
+
+        cacheEvictor.evictTasks(movedIds);
+        cacheEvictor.evictProject(projectId);
+        moved.stream()
+                .map(TaskResponseDTO::getProjectId)
+                .filter(previousProjectId -> previousProjectId != null && !previousProjectId.equals(projectId))
+                .distinct()
+                .forEach(cacheEvictor::evictProject);
+        for (TaskResponseDTO before : moved) {
+            TaskResponseDTO after = new TaskResponseDTO(before.getId(), before.getName(), before.getDescription(),
+                    before.getPriority(), before.getStatus(), before.getDueDate(), assign ? projectId : null);
+            taskStatistics.taskUpdated(before, after);
+            changeFeed.taskAssigned(after, before.getProjectId());
+        }
+
+        return new TaskAssignmentResponseDTO(projectId, updated, lookup.getItems().size() - moved.size(),
+                lookup.getMissingIds());
+    }
+
+    private Specification<Project> buildSearchSpecification(Long id, String name, String description) {
         Specification<Project> spec = Specification.where(null);
 
         if (id != null) {
@@ -69,38 +285,62 @@ public class ProjectService {
         }
 
         if (name != null && !name.trim().isEmpty()) {
-            spec = spec.and(ProjectSpecification.nameContains(name));
+            Optional<List<Long>> candidates = fullTextCandidates(name, FullTextIndex.NAME);
+            if (candidates.isPresent()) {
+                spec = spec.and(ProjectSpecification.hasIdIn(candidates.get()));
+            } else {
+                spec = spec.and(ProjectSpecification.nameContains(name));
+            }
         }
 
         if (description != null && !description.trim().isEmpty()) {
-            spec = spec.and(ProjectSpecification.descriptionContains(description));
+            Optional<List<Long>> candidates = fullTextCandidates(description, FullTextIndex.DESCRIPTION);
+            if (candidates.isPresent()) {
+                spec = spec.and(ProjectSpecification.hasIdIn(candidates.get()));
+            } else {
+                spec = spec.and(ProjectSpecification.descriptionContains(description));
+            }
         }
 
-        Page<Project> projects = projectRepository.findAll(spec, pageable);
-        return projects.map(ProjectMapper::toDTO);
+        return spec;
     }
 
-    @Transactional
-    public ProjectResponseDTO addTaskToProject(Long projectId, Long taskId) {
-        Project project = findProjectById(projectId);
-        Task task = findTaskById(taskId);
+    // Falls back to LIKE when routing is off or the index matches too many projects to pass them on as one IN list
+    private Optional<List<Long>> fullTextCandidates(String text, String field) {
+        if (!fullTextIndex.isRoutingEnabled()) {
+            return Optional.empty();
+        }
+        return fullTextIndex.searchAll(IndexedType.PROJECT, text, MAX_FULL_TEXT_CANDIDATES, field);
+    }
 
-        assignTaskToProject(task, project);
-        saveTaskAndProject(task, project);
+    private Specification<Task> buildProjectTasksSpecification(Long projectId, Status status, Priority priority,
+                                                               LocalDate dueDateFrom, LocalDate dueDateTo) {
+        Specification<Task> spec = Specification.where(TaskSpecification.belongsToProject(projectId));
 
-        return ProjectMapper.toDTO(project);
-    }
+        if (status != null) {
+            spec = spec.and(TaskSpecification.hasStatus(status));
+        }
 
-    @Transactional
-    public ProjectResponseDTO removeTaskFromProject(Long projectId, Long taskId) {
-        Project project = findProjectById(projectId);
-        Task task = findTaskById(taskId);
+        if (priority != null) {
+            spec = spec.and(TaskSpecification.hasPriority(priority));
+        }
 
-        validateTaskAssignmentToProject(task, project);
-        unassignTaskFromProject(task, project);
-        saveTaskAndProject(task, project);
+        if (dueDateFrom != null) {
+            spec = spec.and(TaskSpecification.dueDateAfterOrEqual(dueDateFrom));
+        }
+
+        if (dueDateTo != null) {
+            spec = spec.and(TaskSpecification.dueDateBeforeOrEqual(dueDateTo));
+        }
+
+        return spec;
+    }
 
-        return ProjectMapper.toDTO(project);
+    private ProjectResponseDTO loadProject(Long id, boolean includeTasks) {
+        Project project = includeTasks
+                ? projectRepository.findAllWithTasksByIdIn(List.of(id)).getFirst()
+                : findProjectById(id);
+        return ProjectMapper.toDTO(project, includeTasks);
     }
 
     private Project findProjectById(Long id) {
@@ -108,9 +348,8 @@ public class ProjectService {
                 .orElseThrow(() -> new ProjectNotFoundException(id));
     }
 
-    private Task findTaskById(Long id) {
-        return taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException(id));
+    private void indexProject(Project project) {
+        fullTextIndex.index(IndexedType.PROJECT, project.getId(), project.getName(), project.getDescription());
     }
 
     private void updateProjectDetails(Project project, ProjectRequestDTO dto) {
@@ -118,31 +357,10 @@ public class ProjectService {
         project.setDescription(dto.getDescription());
     }
 
-    private void assignTaskToProject(Task task, Project project) {
-        task.setProject(project);
-        project.getTasks().add(task);
-    }
-
-    private void unassignTaskFromProject(Task task, Project project) {
-        task.setProject(null);
-        project.getTasks().remove(task);
-    }
-
-    private void validateTaskAssignmentToProject(Task task, Project project) {
-        if (task.getProject() == null || !task.getProject().getId().equals(project.getId())) {
-            throw new IllegalArgumentException("Task is not assigned to this project.");
-        }
-    }
-
     private Project saveProject(Project project) {
         return projectRepository.save(project);
     }
 
-    private void saveTaskAndProject(Task task, Project project) {
-        taskRepository.save(task);
-        projectRepository.save(project);
-    }
-
     private Project mapAndValidateProject(ProjectRequestDTO dto) {
         return ProjectMapper.toEntity(dto);
     }
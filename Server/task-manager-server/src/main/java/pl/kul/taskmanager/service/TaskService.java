@@ -1,36 +1,131 @@
 package pl.kul.taskmanager.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import jakarta.validation.Validator;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import pl.kul.taskmanager.cache.CacheConfig;
+import pl.kul.taskmanager.cache.CacheEvictor;
+import pl.kul.taskmanager.dto.BatchFetchResponseDTO;
+import pl.kul.taskmanager.dto.BulkTaskResponseDTO;
+import pl.kul.taskmanager.dto.BulkTaskResultDTO;
+import pl.kul.taskmanager.dto.TaskCursor;
+import pl.kul.taskmanager.dto.TaskPatchDTO;
 import pl.kul.taskmanager.dto.TaskRequestDTO;
 import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.TaskSliceResponseDTO;
+import pl.kul.taskmanager.dto.TaskTransitionRequestDTO;
+import pl.kul.taskmanager.dto.TaskTransitionResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.events.ChangeFeed;
+import pl.kul.taskmanager.exception.PreconditionFailedException;
 import pl.kul.taskmanager.exception.TaskNotFoundException;
 import pl.kul.taskmanager.mapper.TaskMapper;
+import pl.kul.taskmanager.metrics.MetricsConfig;
 import pl.kul.taskmanager.model.Priority;
 import pl.kul.taskmanager.model.Status;
 import pl.kul.taskmanager.model.Task;
 import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.search.FullTextIndex;
+import pl.kul.taskmanager.search.IndexedType;
 import pl.kul.taskmanager.specification.TaskSpecification;
+import pl.kul.taskmanager.stats.TaskStatistics;
+import pl.kul.taskmanager.web.WebConfig;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class TaskService {
 
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final int MAX_BULK_SIZE = 10_000;
+    private static final int MAX_FULL_TEXT_CANDIDATES = 10_000;
+    private static final int MAX_LOOKUP_IDS = 10_000;
+    private static final int MAX_PATCH_ATTEMPTS = 3;
+    private static final int MAX_CURSOR_PAGE_SIZE = 1_000;
+
     private final TaskRepository taskRepository;
+    private final Validator validator;
+    private final FullTextIndex fullTextIndex;
+    private final CacheEvictor cacheEvictor;
+    private final TaskStatistics taskStatistics;
+    private final ChangeFeed changeFeed;
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, Validator validator, FullTextIndex fullTextIndex,
+                       CacheEvictor cacheEvictor, TaskStatistics taskStatistics, ChangeFeed changeFeed) {
         this.taskRepository = taskRepository;
+        this.validator = validator;
+        this.fullTextIndex = fullTextIndex;
+        this.cacheEvictor = cacheEvictor;
+        this.taskStatistics = taskStatistics;
+        this.changeFeed = changeFeed;
     }
 
+    @Transactional
     public TaskResponseDTO createTask(TaskRequestDTO dto) {
         Task task = TaskMapper.toEntity(dto);
         Task saved = taskRepository.save(task);
-        return TaskMapper.toDTO(saved);
+        indexTask(saved);
+        TaskResponseDTO created = TaskMapper.toDTO(saved);
+        taskStatistics.taskCreated(created);
+        changeFeed.taskCreated(created);
+        return created;
+    }
+
+    @Transactional
+    public BulkTaskResponseDTO createTasks(List<TaskRequestDTO> dtos) {
+        if (dtos.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Bulk request cannot contain more than " + MAX_BULK_SIZE + " tasks");
+        }
+
+        List<BulkTaskResultDTO> results = new ArrayList<>(dtos.size());
+        List<BulkTaskResultDTO> accepted = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            TaskRequestDTO dto = dtos.get(i);
+            List<String> errors = validate(dto);
+            BulkTaskResultDTO result = new BulkTaskResultDTO(i, null, errors);
+            results.add(result);
+
+            if (errors.isEmpty()) {
+                accepted.add(result);
+                tasks.add(TaskMapper.toEntity(dto));
+            }
+        }
+
+        // Sequence ids are assigned on persist, the INSERTs themselves go out in JDBC batches on flush
+        List<Task> saved = taskRepository.saveAll(tasks);
+        try (FullTextIndex.Batch batch = fullTextIndex.batch()) {
+            for (int i = 0; i < saved.size(); i++) {
+                Task task = saved.get(i);
+                accepted.get(i).setId(task.getId());
+                batch.index(IndexedType.TASK, task.getId(), task.getName(), task.getDescription());
+                TaskResponseDTO created = TaskMapper.toDTO(task);
+                taskStatistics.taskCreated(created);
+                changeFeed.taskCreated(created);
+            }
+        }
+
+        return new BulkTaskResponseDTO(saved.size(), dtos.size() - saved.size(), results);
     }
 
     public List<TaskResponseDTO> getAllTasks() {
@@ -39,36 +134,342 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
+    // Sparse reads select only the requested columns, so they bypass both the entity and the task cache
+    public List<Map<String, Object>> getAllTasks(List<String> fields) {
+        return taskRepository.findFields(Specification.where(null), fields, Pageable.unpaged()).getContent();
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TASKS, key = "#id")
     public TaskResponseDTO getTaskById(Long id) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new TaskNotFoundException(id));
         return TaskMapper.toDTO(task);
     }
 
-    public TaskResponseDTO updateTask(Long id, TaskRequestDTO dto) {
-        Task updatedTask = taskRepository.findById(id)
-                .map(task -> {
-                    task.setName(dto.getName());
-                    task.setDescription(dto.getDescription());
-                    task.setPriority(dto.getPriority());
-                    task.setStatus(dto.getStatus());
-                    task.setDueDate(dto.getDueDate());
-                    return taskRepository.save(task);
-                })
+    public Map<String, Object> getTaskById(Long id, List<String> fields) {
+        return taskRepository.findFields(TaskSpecification.hasId(id), fields, Pageable.unpaged()).stream()
+                .findFirst()
                 .orElseThrow(() -> new TaskNotFoundException(id));
-        return TaskMapper.toDTO(updatedTask);
     }
 
-    public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
+    public BatchFetchResponseDTO<TaskResponseDTO> getTasksByIds(List<Long> ids) {
+        return Chunks.lookup(ids, MAX_LOOKUP_IDS, taskRepository::findStatesByIdIn, TaskResponseDTO::getId);
+    }
+
+    public VersionStampDTO getTaskVersionStamp(Long id) {
+        VersionStampDTO stamp = taskRepository.findVersionStamp(TaskSpecification.hasId(id));
+        if (stamp.getCount() == 0) {
             throw new TaskNotFoundException(id);
         }
+        return stamp;
+    }
+
+    public VersionStampDTO getTasksVersionStamp() {
+        return taskRepository.findVersionStamp(Specification.where(null));
+    }
+
+    public VersionStampDTO getTasksVersionStamp(Status status, Priority priority, Long projectId,
+                                                LocalDate dueDateFrom, LocalDate dueDateTo,
+                                                String search, String name, Long id) {
+        Specification<Task> spec = buildSearchSpecification(status, priority, projectId, dueDateFrom, dueDateTo, search, name, id);
+        return taskRepository.findVersionStamp(spec);
+    }
+
+    @Transactional
+    public TaskResponseDTO updateTask(Long id, TaskRequestDTO dto) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+        TaskResponseDTO before = TaskMapper.toDTO(task);
+
+        task.setName(dto.getName());
+        task.setDescription(dto.getDescription());
+        task.setPriority(dto.getPriority());
+        task.setStatus(dto.getStatus());
+        task.setDueDate(dto.getDueDate());
+        Task updatedTask = taskRepository.save(task);
+
+        indexTask(updatedTask);
+        cacheEvictor.evictTask(id);
+        if (updatedTask.getProject() != null) {
+            cacheEvictor.evictProject(updatedTask.getProject().getId());
+        }
+        TaskResponseDTO updated = TaskMapper.toDTO(updatedTask);
+        taskStatistics.taskUpdated(before, updated);
+        changeFeed.taskUpdated(before, updated);
+        return updated;
+    }
+
+    // Applies only the supplied fields with one UPDATE; If-Match turns it into a compare-and-set on the task version
+    @Transactional
+    public TaskResponseDTO patchTask(Long id, TaskPatchDTO patch, String ifMatch) {
+        if (!patch.getUnsupportedFields().isEmpty()) {
+            throw new IllegalArgumentException("Unsupported patch fields: " + String.join(", ", patch.getUnsupportedFields()));
+        }
+        List<String> errors = validate(patch);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join(", ", errors));
+        }
+
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.isBlank() && !ifMatch.trim().equals("*")) {
+            VersionStampDTO stamp = getTaskVersionStamp(id);
+            // Either representation's ETag from GET /api/tasks/{id} identifies the same task version
+            if (!matchesAny(ifMatch, stamp.toETag(id, MediaType.APPLICATION_JSON))
+                    && !matchesAny(ifMatch, stamp.toETag(id, WebConfig.APPLICATION_SMILE))) {
+                throw new PreconditionFailedException("Task " + id + " was modified since the given ETag");
+            }
+            expectedVersion = stamp.getVersion();
+        }
+
+        // The UPDATE is always guarded by the version the previous state was read at, so statistics and events are
+        // derived from exactly the state it replaced; a concurrent write in between makes it re-read and try again
+        for (int attempt = 1; ; attempt++) {
+            TaskResponseDTO before = taskRepository.findStateById(id)
+                    .orElseThrow(() -> new TaskNotFoundException(id));
+            if (patch.getChanges().isEmpty()) {
+                return before;
+            }
+
+            Long guardVersion = expectedVersion != null ? expectedVersion : before.getVersion();
+            if (taskRepository.updateFields(id, guardVersion, patch.getChanges()) == 0) {
+                if (expectedVersion != null) {
+                    throw new PreconditionFailedException("Task " + id + " was modified concurrently");
+                }
+                if (attempt == MAX_PATCH_ATTEMPTS) {
+                    throw new ObjectOptimisticLockingFailureException(Task.class, id);
+                }
+                continue;
+            }
+
+            TaskResponseDTO patched = applyPatch(before, patch);
+            if (patch.getChanges().containsKey(TaskPatchDTO.NAME)
+                    || patch.getChanges().containsKey(TaskPatchDTO.DESCRIPTION)) {
+                fullTextIndex.index(IndexedType.TASK, id, patched.getName(), patched.getDescription());
+            }
+            cacheEvictor.evictTask(id);
+            cacheEvictor.evictProject(patched.getProjectId());
+            taskStatistics.taskUpdated(before, patched);
+            changeFeed.taskUpdated(before, patched);
+            return patched;
+        }
+    }
+
+    // Selected rows are read once for events and statistics, then moved with set-based UPDATEs of bounded size
+    @Transactional
+    public TaskTransitionResponseDTO transitionTasks(TaskTransitionRequestDTO request) {
+        if (request.getTargetStatus() == null && request.getTargetPriority() == null) {
+            throw new IllegalArgumentException("Transition requires a target status or priority");
+        }
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (byIds == request.hasFilter()) {
+            throw new IllegalArgumentException("Transition requires either ids or filters, but not both");
+        }
+
+        List<TaskResponseDTO> matched;
+        List<Long> missingIds = List.of();
+        if (byIds) {
+            BatchFetchResponseDTO<TaskResponseDTO> lookup = getTasksByIds(request.getIds());
+            matched = lookup.getItems();
+            missingIds = lookup.getMissingIds();
+        } else {
+            Specification<Task> spec = buildSearchSpecification(request.getStatus(), request.getPriority(),
+                    request.getProjectId(), request.getDueDateFrom(), request.getDueDateTo(),
+                    request.getSearch(), request.getName(), null);
+            try (Stream<TaskResponseDTO> tasks = taskRepository.streamAll(spec, EXPORT_FETCH_SIZE)) {
+                matched = tasks.limit(MAX_BULK_SIZE + 1L).toList();
+            }
+            if (matched.size() > MAX_BULK_SIZE) {
+                throw new IllegalArgumentException("Transition filter matches more than " + MAX_BULK_SIZE + " tasks");
+            }
+        }
+
+        Map<String, Object> changes = new HashMap<>();
+        if (request.getTargetStatus() != null) {
+            changes.put(TaskPatchDTO.STATUS, request.getTargetStatus());
+        }
+        if (request.getTargetPriority() != null) {
+            changes.put(TaskPatchDTO.PRIORITY, request.getTargetPriority());
+        }
+
+        List<TaskResponseDTO> changed = matched.stream()
+                .filter(task -> !transition(task, request).equals(task))
+                .toList();
+        List<Long> changedIds = changed.stream().map(TaskResponseDTO::getId).toList();
+        // Each row is only updated at the version it was read at; a row changed in between rolls the whole
+        // transition back, so no statistics or events are published for a state that was never replaced
+        int updated = 0;
+        for (List<TaskResponseDTO> chunk : Chunks.of(changed, Chunks.DEFAULT_SIZE)) {
+            Map<Long, Long> expectedVersions = new HashMap<>(chunk.size());
+            chunk.forEach(task -> expectedVersions.put(task.getId(), task.getVersion()));
+            int chunkUpdated = taskRepository.updateFieldsByVersions(expectedVersions, changes);
+            if (chunkUpdated != expectedVersions.size()) {
+                throw new ObjectOptimisticLockingFailureException(
+                        "Tasks were modified concurrently during the transition", null);
+            }
+            updated += chunkUpdated;
+        }
+
+        cacheEvictor.evictTasks(changedIds);
+        changed.stream().map(TaskResponseDTO::getProjectId).distinct().forEach(cacheEvictor::evictProject);
+        for (TaskResponseDTO before : changed) {
+            TaskResponseDTO after = transition(before, request);
+            taskStatistics.taskUpdated(before, after);
+            changeFeed.taskUpdated(before, after);
+        }
+        return new TaskTransitionResponseDTO(matched.size(), updated, matched.size() - changed.size(), missingIds);
+    }
+
+    @Transactional
+    public void deleteTask(Long id) {
+        TaskResponseDTO deleted = taskRepository.findStateById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
         taskRepository.deleteById(id);
+        fullTextIndex.remove(IndexedType.TASK, id);
+        cacheEvictor.evictTask(id);
+        cacheEvictor.evictProject(deleted.getProjectId());
+        taskStatistics.taskDeleted(deleted);
+        changeFeed.taskDeleted(deleted);
+    }
+
+    public List<TaskResponseDTO> searchTasksByText(String query, int limit) {
+        List<Long> rankedIds = fullTextIndex.search(IndexedType.TASK, query, limit,
+                FullTextIndex.NAME, FullTextIndex.DESCRIPTION);
+        Map<Long, Task> tasks = taskRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        return rankedIds.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(TaskMapper::toDTO)
+                .collect(Collectors.toList());
     }
 
     public Page<TaskResponseDTO> searchTasks(Status status, Priority priority, Long projectId,
                                              LocalDate dueDateFrom, LocalDate dueDateTo,
                                              String search, String name, Long id, Pageable pageable) {
+        Specification<Task> spec = buildSearchSpecification(status, priority, projectId, dueDateFrom, dueDateTo, search, name, id);
+
+        Page<Task> tasks = taskRepository.findAll(spec, pageable);
+        return tasks.map(TaskMapper::toDTO);
+    }
+
+    public Page<Map<String, Object>> searchTasks(Status status, Priority priority, Long projectId,
+                                                 LocalDate dueDateFrom, LocalDate dueDateTo,
+                                                 String search, String name, Long id, List<String> fields,
+                                                 Pageable pageable) {
+        Specification<Task> spec = buildSearchSpecification(status, priority, projectId, dueDateFrom, dueDateTo, search, name, id);
+        return taskRepository.findFields(spec, fields, pageable);
+    }
+
+    public TaskSliceResponseDTO searchTasksAfter(Status status, Priority priority, Long projectId,
+                                                 LocalDate dueDateFrom, LocalDate dueDateTo,
+                                                 String search, String name, Long id,
+                                                 String sortBy, Sort.Direction direction, String after, int size) {
+        if (!TaskCursor.SORT_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Unsupported cursor sort field: " + sortBy);
+        }
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+
+        Specification<Task> spec = buildSearchSpecification(status, priority, projectId, dueDateFrom, dueDateTo, search, name, id);
+
+        if (after != null && !after.isBlank()) {
+            TaskCursor cursor = TaskCursor.decode(after);
+            if (!cursor.getSortBy().equals(sortBy) || cursor.getDirection() != direction) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+            spec = spec.and(TaskSpecification.seekAfter(sortBy, direction.isDescending(), cursor.getValue(), cursor.getId()));
+        }
+
+        Sort sort = Sort.by(
+                direction.isDescending() ? Sort.Order.desc(sortBy).nullsLast() : Sort.Order.asc(sortBy).nullsFirst(),
+                new Sort.Order(direction, "id"));
+
+        // Fetch one extra row to learn whether another slice exists without issuing a COUNT query
+        List<Task> tasks = taskRepository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean hasNext = tasks.size() > size;
+        List<Task> content = hasNext ? tasks.subList(0, size) : tasks;
+        String nextCursor = hasNext ? TaskCursor.of(content.getLast(), sortBy, direction).encode() : null;
+
+        return new TaskSliceResponseDTO(
+                content.stream().map(TaskMapper::toDTO).collect(Collectors.toList()),
+                content.size(),
+                hasNext,
+                nextCursor);
+    }
+
+    @Transactional
+    public void exportTasks(Status status, Priority priority, Long projectId,
+                            LocalDate dueDateFrom, LocalDate dueDateTo,
+                            String search, String name, Long id, Consumer<TaskResponseDTO> consumer) {
+        Specification<Task> spec = buildSearchSpecification(status, priority, projectId, dueDateFrom, dueDateTo, search, name, id);
+
+        try (Stream<TaskResponseDTO> tasks = taskRepository.streamAll(spec, EXPORT_FETCH_SIZE)) {
+            tasks.forEach(consumer);
+        }
+    }
+
+    private void indexTask(Task task) {
+        fullTextIndex.index(IndexedType.TASK, task.getId(), task.getName(), task.getDescription());
+    }
+
+    private List<String> validate(TaskPatchDTO patch) {
+        return patch.getChanges().entrySet().stream()
+                .flatMap(change -> validator.validateValue(TaskRequestDTO.class, change.getKey(), change.getValue()).stream())
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static TaskResponseDTO applyPatch(TaskResponseDTO task, TaskPatchDTO patch) {
+        Map<String, Object> changes = patch.getChanges();
+        return new TaskResponseDTO(
+                task.getId(),
+                changes.containsKey(TaskPatchDTO.NAME) ? patch.getName() : task.getName(),
+                changes.containsKey(TaskPatchDTO.DESCRIPTION) ? patch.getDescription() : task.getDescription(),
+                changes.containsKey(TaskPatchDTO.PRIORITY) ? patch.getPriority() : task.getPriority(),
+                changes.containsKey(TaskPatchDTO.STATUS) ? patch.getStatus() : task.getStatus(),
+                changes.containsKey(TaskPatchDTO.DUE_DATE) ? patch.getDueDate() : task.getDueDate(),
+                task.getProjectId(),
+                task.getVersion());
+    }
+
+    private static TaskResponseDTO transition(TaskResponseDTO task, TaskTransitionRequestDTO request) {
+        return new TaskResponseDTO(
+                task.getId(),
+                task.getName(),
+                task.getDescription(),
+                request.getTargetPriority() != null ? request.getTargetPriority() : task.getPriority(),
+                request.getTargetStatus() != null ? request.getTargetStatus() : task.getStatus(),
+                task.getDueDate(),
+                task.getProjectId(),
+                task.getVersion());
+    }
+
+    private static boolean matchesAny(String ifMatch, String eTag) {
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> validate(TaskRequestDTO dto) {
+        if (dto == null) {
+            return List.of("Task must not be null");
+        }
+        return validator.validate(dto).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private Specification<Task> buildSearchSpecification(Status status, Priority priority, Long projectId,
+                                                         LocalDate dueDateFrom, LocalDate dueDateTo,
+                                                         String search, String name, Long id) {
         Specification<Task> spec = Specification.where(null);
 
         if (status != null) {
@@ -92,23 +493,38 @@ public class TaskService {
         }
 
         if (search != null && !search.trim().isEmpty()) {
-            spec = spec.and(
-                    Specification.where(TaskSpecification.nameContains(search))
-                            .or(TaskSpecification.descriptionContains(search))
-            );
+            Optional<List<Long>> candidates = fullTextCandidates(search, FullTextIndex.NAME, FullTextIndex.DESCRIPTION);
+            if (candidates.isPresent()) {
+                spec = spec.and(TaskSpecification.hasIdIn(candidates.get()));
+            } else {
+                spec = spec.and(
+                        Specification.where(TaskSpecification.nameContains(search))
+                                .or(TaskSpecification.descriptionContains(search))
+                );
+            }
         }
 
         if (name != null && !name.trim().isEmpty()) {
-            spec = spec.and(TaskSpecification.nameContains(name));
+            Optional<List<Long>> candidates = fullTextCandidates(name, FullTextIndex.NAME);
+            if (candidates.isPresent()) {
+                spec = spec.and(TaskSpecification.hasIdIn(candidates.get()));
+            } else {
+                spec = spec.and(TaskSpecification.nameContains(name));
+            }
         }
 
         if (id != null) {
             spec = spec.and(TaskSpecification.hasId(id));
         }
 
-        Page<Task> tasks = taskRepository.findAll(spec, pageable);
-        return tasks.map(TaskMapper::toDTO);
+        return spec;
     }
 
-
+    // Falls back to LIKE when routing is off or the index matches too many tasks to pass them on as one IN list
+    private Optional<List<Long>> fullTextCandidates(String text, String... fields) {
+        if (!fullTextIndex.isRoutingEnabled()) {
+            return Optional.empty();
+        }
+        return fullTextIndex.searchAll(IndexedType.TASK, text, MAX_FULL_TEXT_CANDIDATES, fields);
+    }
 }
\ No newline at end of file
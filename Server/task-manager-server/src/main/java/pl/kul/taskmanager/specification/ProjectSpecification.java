@@ -3,6 +3,8 @@ package pl.kul.taskmanager.specification;
 import org.springframework.data.jpa.domain.Specification;
 import pl.kul.taskmanager.model.Project;
 
+import java.util.Collection;
+
 public class ProjectSpecification {
 
     public static Specification<Project> nameContains(String keyword) {
@@ -20,4 +22,9 @@ public class ProjectSpecification {
         return (root, _, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("id"), id);
     }
+
+    public static Specification<Project> hasIdIn(Collection<Long> ids) {
+        return (root, _, criteriaBuilder) ->
+                ids.isEmpty() ? criteriaBuilder.disjunction() : root.get("id").in(ids);
+    }
 }
@@ -1,12 +1,17 @@
 package pl.kul.taskmanager.specification;
 
-import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Project;
 import pl.kul.taskmanager.model.Status;
 import pl.kul.taskmanager.model.Task;
 
 import java.time.LocalDate;
+import java.util.Collection;
 
 public class TaskSpecification {
 
@@ -22,7 +27,21 @@ public class TaskSpecification {
 
     public static Specification<Task> belongsToProject(Long projectId) {
         return (root, _, criteriaBuilder) ->
-                criteriaBuilder.equal(root.join("project", JoinType.LEFT).get("id"), projectId);
+                criteriaBuilder.equal(root.get("project").get("id"), projectId);
+    }
+
+    public static Specification<Task> belongsToProjectMatching(Specification<Project> projectSpec) {
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Long> projectIds = query.subquery(Long.class);
+            Root<Project> project = projectIds.from(Project.class);
+            projectIds.select(project.get("id"));
+
+            Predicate predicate = projectSpec.toPredicate(project, query, criteriaBuilder);
+            if (predicate != null) {
+                projectIds.where(predicate);
+            }
+            return root.get("project").get("id").in(projectIds);
+        };
     }
 
     public static Specification<Task> dueDateAfterOrEqual(LocalDate date) {
@@ -50,4 +69,38 @@ public class TaskSpecification {
                 criteriaBuilder.equal(root.get("id"), id);
     }
 
+    public static Specification<Task> hasIdIn(Collection<Long> ids) {
+        return (root, _, criteriaBuilder) ->
+                ids.isEmpty() ? criteriaBuilder.disjunction() : root.get("id").in(ids);
+    }
+
+    // Keyset predicate for (sortBy, id) ordering; NULL sort keys are treated as lower than any value
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static Specification<Task> seekAfter(String sortBy, boolean descending, Comparable value, Long lastId) {
+        return (root, _, criteriaBuilder) -> {
+            Path<Long> id = root.get("id");
+            Predicate idBeyond = descending
+                    ? criteriaBuilder.lessThan(id, lastId)
+                    : criteriaBuilder.greaterThan(id, lastId);
+
+            if ("id".equals(sortBy)) {
+                return idBeyond;
+            }
+
+            Path<Comparable> key = root.get(sortBy);
+            if (value == null) {
+                Predicate sameKey = criteriaBuilder.and(criteriaBuilder.isNull(key), idBeyond);
+                return descending ? sameKey : criteriaBuilder.or(sameKey, criteriaBuilder.isNotNull(key));
+            }
+
+            Predicate keyBeyond = descending
+                    ? criteriaBuilder.lessThan(key, value)
+                    : criteriaBuilder.greaterThan(key, value);
+            Predicate sameKey = criteriaBuilder.and(criteriaBuilder.equal(key, value), idBeyond);
+            return descending
+                    ? criteriaBuilder.or(keyBeyond, sameKey, criteriaBuilder.isNull(key))
+                    : criteriaBuilder.or(keyBeyond, sameKey);
+        };
+    }
+
 }
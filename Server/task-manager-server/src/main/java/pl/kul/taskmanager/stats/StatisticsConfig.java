@@ -0,0 +1,9 @@
+package pl.kul.taskmanager.stats;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class StatisticsConfig {
+}
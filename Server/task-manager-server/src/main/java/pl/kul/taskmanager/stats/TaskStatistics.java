@@ -0,0 +1,162 @@
+package pl.kul.taskmanager.stats;
+
+import org.springframework.stereotype.Component;
+import pl.kul.taskmanager.dto.ProjectCompletionDTO;
+import pl.kul.taskmanager.dto.TaskCountDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.TaskStatisticsDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.transaction.AfterCommit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Updated by the services on every committed write; TaskStatisticsReconciler rebuilds it from SQL to correct drift
+@Component
+public class TaskStatistics {
+
+    private static final int TOTAL = 0;
+    private static final int DONE = 1;
+    private static final long RECONCILE_RETRY_MILLIS = 10;
+
+    private final Clock clock;
+
+    private final long[][] byStatusAndPriority = new long[Status.values().length][Priority.values().length];
+    // Open (not DONE) tasks per due date; overdue is everything before today, so the count stays correct as days pass
+    private final TreeMap<LocalDate, Long> openByDueDate = new TreeMap<>();
+    private final Map<Long, long[]> byProject = new HashMap<>();
+    // Writers hold the read side from just before their commit until their delta is applied, and a reconcile reads
+    // under the write side; every commit is then either fully before the SQL read or applied after the rebuild
+    private final ReentrantReadWriteLock commits = new ReentrantReadWriteLock();
+    private Instant reconciledAt;
+
+    public TaskStatistics() {
+        this(Clock.systemDefaultZone());
+    }
+
+    TaskStatistics(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void taskCreated(TaskResponseDTO task) {
+        AfterCommit.run(() -> apply(task, 1), commits.readLock());
+    }
+
+    public void taskUpdated(TaskResponseDTO before, TaskResponseDTO after) {
+        AfterCommit.run(() -> {
+            apply(before, -1);
+            apply(after, 1);
+        }, commits.readLock());
+    }
+
+    public void taskDeleted(TaskResponseDTO task) {
+        AfterCommit.run(() -> apply(task, -1), commits.readLock());
+    }
+
+    public void projectCreated(Long projectId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                byProject.putIfAbsent(projectId, new long[2]);
+            }
+        }, commits.readLock());
+    }
+
+    public void projectDeleted(Long projectId, Collection<TaskResponseDTO> tasks) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                tasks.forEach(task -> apply(task, -1));
+                byProject.remove(projectId);
+            }
+        }, commits.readLock());
+    }
+
+    // Reads the counts with no commit in flight and rebuilds from them. The write lock is only ever taken with
+    // tryLock: a queued writer would block committing transactions that may hold row locks its own queries need.
+    // Returns false, leaving the counters as they are, when commits never paused for maxWait
+    public boolean reconcile(Supplier<Collection<TaskCountDTO>> counts, Supplier<Collection<Long>> projectIds,
+                             Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (!commits.writeLock().tryLock()) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.sleep(RECONCILE_RETRY_MILLIS);
+        }
+        try {
+            rebuild(counts.get(), projectIds.get());
+            return true;
+        } finally {
+            commits.writeLock().unlock();
+        }
+    }
+
+    public synchronized void rebuild(Collection<TaskCountDTO> counts, Collection<Long> projectIds) {
+        for (long[] row : byStatusAndPriority) {
+            Arrays.fill(row, 0);
+        }
+        openByDueDate.clear();
+        byProject.clear();
+        projectIds.forEach(id -> byProject.put(id, new long[2]));
+        counts.forEach(count -> add(count.getStatus(), count.getPriority(), count.getDueDate(), count.getProjectId(),
+                count.getCount()));
+        reconciledAt = clock.instant();
+    }
+
+    public synchronized TaskStatisticsDTO snapshot() {
+        long total = 0;
+        Map<Status, Map<Priority, Long>> matrix = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            Map<Priority, Long> row = new EnumMap<>(Priority.class);
+            for (Priority priority : Priority.values()) {
+                long count = byStatusAndPriority[status.ordinal()][priority.ordinal()];
+                row.put(priority, count);
+                total += count;
+            }
+            matrix.put(status, row);
+        }
+
+        long overdue = openByDueDate.headMap(LocalDate.now(clock), false).values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+
+        List<ProjectCompletionDTO> projects = new ArrayList<>(byProject.size());
+        byProject.forEach((id, counts) -> projects.add(new ProjectCompletionDTO(id, counts[TOTAL], counts[DONE],
+                counts[TOTAL] == 0 ? 0 : (double) counts[DONE] / counts[TOTAL])));
+        projects.sort((left, right) -> Long.compare(left.getProjectId(), right.getProjectId()));
+
+        return new TaskStatisticsDTO(total, overdue, matrix, projects, reconciledAt);
+    }
+
+    private synchronized void apply(TaskResponseDTO task, long delta) {
+        add(task.getStatus(), task.getPriority(), task.getDueDate(), task.getProjectId(), delta);
+    }
+
+    private void add(Status status, Priority priority, LocalDate dueDate, Long projectId, long delta) {
+        byStatusAndPriority[status.ordinal()][priority.ordinal()] += delta;
+
+        if (status != Status.DONE && dueDate != null) {
+            openByDueDate.merge(dueDate, delta, (current, change) -> current + change == 0 ? null : current + change);
+        }
+
+        if (projectId != null) {
+            long[] counts = byProject.computeIfAbsent(projectId, _ -> new long[2]);
+            counts[TOTAL] += delta;
+            if (status == Status.DONE) {
+                counts[DONE] += delta;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package pl.kul.taskmanager.stats;
+
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.kul.taskmanager.repository.ProjectRepository;
+import pl.kul.taskmanager.repository.TaskRepository;
+
+import java.time.Duration;
+
+@Component
+public class TaskStatisticsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskStatisticsReconciler.class);
+
+    private final TaskStatistics taskStatistics;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final Duration maxWait;
+
+    public TaskStatisticsReconciler(TaskStatistics taskStatistics, TaskRepository taskRepository,
+                                    ProjectRepository projectRepository,
+                                    @Value("${taskmanager.stats.reconcile-max-wait:PT5S}") Duration maxWait) {
+        this.taskStatistics = taskStatistics;
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.maxWait = maxWait;
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${taskmanager.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${taskmanager.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        try {
+            boolean reconciled = taskStatistics.reconcile(taskRepository::countGroupedByState,
+                    projectRepository::findAllIds, maxWait);
+            if (!reconciled) {
+                log.warn("Task statistics not reconciled, commits did not pause for {}", maxWait);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package pl.kul.taskmanager.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.Lock;
+
+// Side effects outside the database (caches, counters, events, the search index) only ever reflect committed data:
+// inside a transaction they run once it commits and are dropped on rollback, outside one they run immediately
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Like run(action), but the lock is held from just before the commit until the action has run, so whoever holds
+    // the other side of a read-write lock never sees a commit without its side effect, or the other way around
+    public static void run(Runnable action, Lock commitLock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commitLock.lock();
+            try {
+                action.run();
+            } finally {
+                commitLock.unlock();
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitLock.lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    locked = false;
+                    commitLock.unlock();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,22 @@
+CREATE SEQUENCE project_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE task_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE projects
+(
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL,
+    description VARCHAR(500)
+);
+
+CREATE TABLE tasks
+(
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    priority    VARCHAR(20)  NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL')),
+    status      VARCHAR(20)  NOT NULL CHECK (status IN ('TODO', 'IN_PROGRESS', 'BLOCKED', 'DONE')),
+    due_date    DATE,
+    project_id  BIGINT
+);
+
+-- The foreign key on tasks.project_id is added in V2, after the index it is meant to reuse
@@ -0,0 +1,16 @@
+-- Indexes for the filter/sort combinations used by TaskSpecification in TaskService.searchTasks
+
+-- projectId filter, optionally narrowed by status; also serves the foreign key
+CREATE INDEX idx_tasks_project_id_status ON tasks (project_id, status);
+
+-- Added once the index exists, so H2 reuses it instead of creating a separate index for the constraint
+ALTER TABLE tasks ADD CONSTRAINT fk_tasks_project FOREIGN KEY (project_id) REFERENCES projects (id);
+
+-- status filter, optionally with a dueDate range or dueDate sort
+CREATE INDEX idx_tasks_status_due_date ON tasks (status, due_date);
+
+-- priority filter, optionally with a dueDate range or dueDate sort
+CREATE INDEX idx_tasks_priority_due_date ON tasks (priority, due_date);
+
+-- dueDate range on its own
+CREATE INDEX idx_tasks_due_date ON tasks (due_date);
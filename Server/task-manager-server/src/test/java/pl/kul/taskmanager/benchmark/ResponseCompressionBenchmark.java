@@ -0,0 +1,121 @@
+package pl.kul.taskmanager.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.kul.taskmanager.TaskManagerServerApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class ResponseCompressionBenchmark {
+
+    private static final int SEED_TASKS = 2_000;
+    private static final int WARMUP_REQUESTS = 200;
+    private static final int REQUESTS = 1_000;
+    // Requests kept in flight at once; over HTTP/2 they share one connection, over HTTP/1.1 each needs its own
+    private static final int CONCURRENCY = 16;
+
+    @Test
+    void compareEncodingsAndProtocols() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerServerApplication.class)
+                .properties("server.port=0", "spring.datasource.url=jdbc:h2:mem:compression")
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/tasks";
+            seed(baseUrl);
+
+            String page = baseUrl + "/search?size=500&sort=dueDate,asc";
+            String single = baseUrl + "/1";
+            List<Result> results = new ArrayList<>();
+            for (String url : List.of(page, single)) {
+                for (HttpClient.Version version : HttpClient.Version.values()) {
+                    for (String encoding : List.of("identity", "gzip")) {
+                        results.add(run(url, version, encoding));
+                    }
+                }
+            }
+            results.forEach(System.out::println);
+        }
+    }
+
+    private Result run(String url, HttpClient.Version version, String encoding) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(version).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Accept-Encoding", encoding)
+                .GET()
+                .build();
+
+        // The first request performs the h2c upgrade, later ones reuse the negotiated connection
+        HttpResponse<byte[]> first = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, first.statusCode());
+        send(client, request, WARMUP_REQUESTS);
+
+        long start = System.nanoTime();
+        long[] latencies = send(client, request, REQUESTS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        Arrays.sort(latencies);
+
+        return new Result(url.substring(url.lastIndexOf('/')), first.version(), encoding,
+                first.headers().firstValue("Content-Encoding").orElse("none"), first.body().length,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), REQUESTS / seconds);
+    }
+
+    // Body lengths are taken before any decompression, so they are the bytes that crossed the wire
+    private long[] send(HttpClient client, HttpRequest request, int count) {
+        long[] latencies = new long[count];
+        for (int offset = 0; offset < count; offset += CONCURRENCY) {
+            List<CompletableFuture<Void>> batch = new ArrayList<>(CONCURRENCY);
+            for (int i = offset; i < Math.min(offset + CONCURRENCY, count); i++) {
+                int index = i;
+                long start = System.nanoTime();
+                batch.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                        .thenAccept(response -> {
+                            latencies[index] = System.nanoTime() - start;
+                            assertEquals(200, response.statusCode());
+                        }));
+            }
+            CompletableFuture.allOf(batch.toArray(CompletableFuture[]::new)).join();
+        }
+        return latencies;
+    }
+
+    private void seed(String baseUrl) throws IOException, InterruptedException {
+        String body = IntStream.range(0, SEED_TASKS)
+                .mapToObj(i -> "{\"name\":\"Task " + i + "\",\"description\":\"Description of task " + i
+                        + "\",\"priority\":\"LOW\",\"status\":\"TODO\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(baseUrl + "/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record Result(String resource, HttpClient.Version version, String requested, String contentEncoding,
+                          int wireBytes, double p50Millis, double p99Millis, double requestsPerSecond) {
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %-8s accept %-8s -> %-4s %8d bytes, p50 %7.2f ms, p99 %7.2f ms, %8.0f req/s",
+                    resource, version, requested, contentEncoding, wireBytes, p50Millis, p99Millis, requestsPerSecond);
+        }
+    }
+}
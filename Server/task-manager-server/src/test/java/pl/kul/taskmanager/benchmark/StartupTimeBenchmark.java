@@ -0,0 +1,121 @@
+package pl.kul.taskmanager.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Launched by the startupBenchmark Gradle task, which builds the artifacts and passes their locations
+@Tag("benchmark")
+@Tag("startup")
+class StartupTimeBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void compareTimeToFirstRequest() throws Exception {
+        String java = System.getProperty("startup.java");
+        String jar = System.getProperty("startup.jar");
+        Path dir = Path.of(System.getProperty("startup.dir"));
+        assertTrue(Files.exists(dir.resolve(jar)), "Run ./gradlew startupBenchmark to build the extracted application");
+
+        List<Mode> modes = new ArrayList<>();
+        modes.add(new Mode("jvm", List.of(java, "-jar", jar)));
+        modes.add(new Mode("cds", List.of(java, "-XX:SharedArchiveFile=application.jsa", "-jar", jar)));
+        if (Boolean.getBoolean("startup.aot")) {
+            modes.add(new Mode("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", jar)));
+            modes.add(new Mode("aot+cds", List.of(java, "-Dspring.aot.enabled=true",
+                    "-XX:SharedArchiveFile=application-aot.jsa", "-jar", jar)));
+        }
+        String nativeImage = System.getProperty("startup.native", "");
+        if (!nativeImage.isEmpty() && Files.isExecutable(Path.of(nativeImage))) {
+            modes.add(new Mode("native", List.of(nativeImage)));
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Mode mode : modes) {
+            long[] millis = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                millis[run] = timeToFirstRequest(mode, dir.toFile());
+            }
+            Arrays.sort(millis);
+            results.add(new Result(mode.name(), millis[0], millis[RUNS / 2], millis[RUNS - 1]));
+        }
+        results.forEach(System.out::println);
+    }
+
+    // Measured from process launch until GET /api/tasks first answers 200, i.e. including Flyway and the Lucene rebuild
+    private long timeToFirstRequest(Mode mode, File dir) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(mode.command());
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks")).GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(dir)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " exited with code " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException | HttpConnectTimeoutException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(mode.name() + " did not answer within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Mode(String name, List<String> command) {
+    }
+
+    private record Result(String mode, long minMillis, long medianMillis, long maxMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s time to first request: min %6d ms, median %6d ms, max %6d ms",
+                    mode, minMillis, medianMillis, maxMillis);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package pl.kul.taskmanager.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.kul.taskmanager.dto.BulkTaskResponseDTO;
+import pl.kul.taskmanager.dto.TaskRequestDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.service.TaskService;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class TaskBulkCreateBenchmark {
+
+    private static final int TASK_COUNT = 5_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareOneByOneAndBulkCreation() {
+        List<TaskRequestDTO> tasks = IntStream.range(0, TASK_COUNT)
+                .mapToObj(i -> new TaskRequestDTO("Task " + i, "Benchmark task", Priority.MEDIUM, Status.TODO, null, null))
+                .toList();
+
+        // warm-up
+        tasks.subList(0, 500).forEach(taskService::createTask);
+        taskService.createTasks(tasks.subList(0, 500));
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            tasks.forEach(taskService::createTask);
+            long oneByOneNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BulkTaskResponseDTO result = taskService.createTasks(tasks);
+            long bulkNanos = System.nanoTime() - start;
+
+            assertEquals(TASK_COUNT, result.getCreated());
+            System.out.printf("round %d: one-by-one %,.0f tasks/s, bulk %,.0f tasks/s (%.1fx)%n",
+                    round, throughput(oneByOneNanos), throughput(bulkNanos), (double) oneByOneNanos / bulkNanos);
+        }
+    }
+
+    private static double throughput(long nanos) {
+        return TASK_COUNT / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,86 @@
+package pl.kul.taskmanager.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.kul.taskmanager.dto.BulkTaskResultDTO;
+import pl.kul.taskmanager.dto.TaskPatchDTO;
+import pl.kul.taskmanager.dto.TaskRequestDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.service.TaskService;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class TaskStatusFlipBenchmark {
+
+    private static final int TASK_COUNT = 2_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAllInBatch();
+        List<TaskRequestDTO> tasks = IntStream.range(0, TASK_COUNT)
+                .mapToObj(i -> new TaskRequestDTO("Task " + i, "Benchmark task", Priority.MEDIUM, Status.TODO, null, null))
+                .toList();
+        ids = taskService.createTasks(tasks).getResults().stream()
+                .map(BulkTaskResultDTO::getId)
+                .toList();
+    }
+
+    @Test
+    void compareStatusFlipsWithPutAndPatch() {
+        // warm-up
+        flipWithPut(Status.IN_PROGRESS);
+        flipWithPatch(Status.TODO);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            flipWithPut(round % 2 == 0 ? Status.TODO : Status.DONE);
+            long putNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            flipWithPatch(round % 2 == 0 ? Status.DONE : Status.TODO);
+            long patchNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: PUT %,.0f flips/s, PATCH %,.0f flips/s (%.1fx)%n",
+                    round, throughput(putNanos), throughput(patchNanos), (double) putNanos / patchNanos);
+        }
+    }
+
+    // PUT has to resend the whole task, so the client reads it first just like the console client does
+    private void flipWithPut(Status status) {
+        for (Long id : ids) {
+            TaskResponseDTO current = taskService.getTaskById(id);
+            taskService.updateTask(id, new TaskRequestDTO(current.getName(), current.getDescription(),
+                    current.getPriority(), status, current.getDueDate(), current.getProjectId()));
+        }
+    }
+
+    private void flipWithPatch(Status status) {
+        for (Long id : ids) {
+            TaskPatchDTO patch = new TaskPatchDTO();
+            patch.setStatus(status);
+            taskService.patchTask(id, patch, null);
+        }
+    }
+
+    private static double throughput(long nanos) {
+        return TASK_COUNT / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,153 @@
+package pl.kul.taskmanager.benchmark;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.filter.OncePerRequestFilter;
+import pl.kul.taskmanager.TaskManagerServerApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int SEED_TASKS = 2_000;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TaskManagerServerApplication.class, InFlightConfig.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + (virtualThreads ? "virtual" : "platform"));
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/tasks";
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            seed(client, baseUrl);
+
+            InFlightFilter.reset();
+            long[] latencies = load(client, baseUrl + "/search?status=TODO&size=20&sort=dueDate,asc");
+            Arrays.sort(latencies);
+
+            return new Result(virtualThreads ? "virtual" : "platform",
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1],
+                    InFlightFilter.max.get());
+        }
+    }
+
+    private void seed(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        String body = IntStream.range(0, SEED_TASKS)
+                .mapToObj(i -> "{\"name\":\"Task " + i + "\",\"priority\":\"LOW\",\"status\":\"" + (i % 2 == 0 ? "TODO" : "DONE") + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+    }
+
+    private long[] load(HttpClient client, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    long[] latencies = new long[REQUESTS_PER_CLIENT];
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[r] = System.nanoTime() - start;
+                        assertEquals(200, response.statusCode());
+                    }
+                    return latencies;
+                }));
+            }
+
+            long[] all = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            for (int i = 0; i < futures.size(); i++) {
+                System.arraycopy(futures.get(i).get(), 0, all, i * REQUESTS_PER_CLIENT, REQUESTS_PER_CLIENT);
+            }
+            return all;
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record Result(String mode, double p50Millis, double p99Millis, double maxMillis, int maxInFlight) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s p50 %8.2f ms, p99 %8.2f ms, max %8.2f ms, max in-flight requests %d",
+                    mode, p50Millis, p99Millis, maxMillis, maxInFlight);
+        }
+    }
+
+    // Registered only as an explicit source of the benchmark application, never picked up by component scanning
+    static class InFlightConfig {
+
+        @Bean
+        InFlightFilter inFlightFilter() {
+            return new InFlightFilter();
+        }
+    }
+
+    static class InFlightFilter extends OncePerRequestFilter {
+
+        private static final AtomicInteger current = new AtomicInteger();
+        private static final AtomicInteger max = new AtomicInteger();
+
+        static void reset() {
+            current.set(0);
+            max.set(0);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                current.decrementAndGet();
+            }
+        }
+    }
+}
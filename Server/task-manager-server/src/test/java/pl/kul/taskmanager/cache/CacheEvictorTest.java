@@ -0,0 +1,68 @@
+package pl.kul.taskmanager.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheEvictorTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private CacheEvictor cacheEvictor;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.TASKS, CacheConfig.PROJECTS);
+        cacheEvictor = new CacheEvictor(cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void should_evictOnlyGivenEntries() {
+        // given
+        Cache tasks = cacheManager.getCache(CacheConfig.TASKS);
+        Cache projects = cacheManager.getCache(CacheConfig.PROJECTS);
+        tasks.put(1L, "task 1");
+        tasks.put(2L, "task 2");
+        projects.put(1L, "project 1");
+
+        // when
+        cacheEvictor.evictTask(1L);
+        cacheEvictor.evictProject(null);
+
+        // then
+        assertNull(tasks.get(1L));
+        assertNotNull(tasks.get(2L));
+        assertNotNull(projects.get(1L));
+    }
+
+    @Test
+    void should_evictAgainAfterCommit_when_transactionActive() {
+        // given
+        Cache projects = cacheManager.getCache(CacheConfig.PROJECTS);
+        TransactionSynchronizationManager.initSynchronization();
+        cacheEvictor.evictProject(1L);
+        projects.put(1L, "stale project read before commit");
+
+        // when
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        // then
+        assertEquals(1, synchronizations.size());
+        assertNull(projects.get(1L));
+    }
+}
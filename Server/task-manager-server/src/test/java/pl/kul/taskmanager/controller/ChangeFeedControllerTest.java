@@ -0,0 +1,42 @@
+package pl.kul.taskmanager.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.kul.taskmanager.events.ChangeFeed;
+import pl.kul.taskmanager.model.Status;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ChangeFeedController.class)
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeed changeFeed;
+
+    @Test
+    void should_subscribeWithFilters_and_preferLastEventIdHeader() throws Exception {
+        // given
+        when(changeFeed.subscribe(eq(42L), eq(7L), eq(Status.TODO))).thenReturn(new SseEmitter());
+
+        // when
+        mockMvc.perform(get("/api/events")
+                        .header("Last-Event-ID", "42")
+                        .param("lastEventId", "3")
+                        .param("projectId", "7")
+                        .param("status", "TODO"))
+                // then
+                .andExpect(request().asyncStarted());
+
+        verify(changeFeed, times(1)).subscribe(42L, 7L, Status.TODO);
+    }
+}
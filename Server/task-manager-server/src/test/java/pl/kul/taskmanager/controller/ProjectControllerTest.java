@@ -1,5 +1,6 @@
 package pl.kul.taskmanager.controller;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -9,12 +10,27 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import pl.kul.taskmanager.dto.ProjectDeletionJobDTO;
+import pl.kul.taskmanager.dto.ProjectDeletionStatus;
 import pl.kul.taskmanager.dto.ProjectRequestDTO;
 import pl.kul.taskmanager.dto.ProjectResponseDTO;
+import pl.kul.taskmanager.dto.ProjectSummaryDTO;
+import pl.kul.taskmanager.dto.TaskAssignmentResponseDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.service.ProjectDeletionService;
 import pl.kul.taskmanager.service.ProjectService;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,9 +41,24 @@ class ProjectControllerTest {
     @Mock
     private ProjectService projectService;
 
+    @Mock
+    private ProjectDeletionService projectDeletionService;
+
     @InjectMocks
     private ProjectController projectController;
 
+    private MockHttpServletRequest servletRequest;
+    private MockHttpServletResponse servletResponse;
+    private ServletWebRequest webRequest;
+    private final VersionStampDTO stamp = new VersionStampDTO(2L, 5L, Instant.parse("2024-05-01T10:15:30Z"));
+
+    @BeforeEach
+    void setUp() {
+        servletRequest = new MockHttpServletRequest("GET", "/api/projects");
+        servletResponse = new MockHttpServletResponse();
+        webRequest = new ServletWebRequest(servletRequest, servletResponse);
+    }
+
     @Test
     void should_createProject_when_validRequest() {
         // given
@@ -49,32 +80,66 @@ class ProjectControllerTest {
     void should_getAllProjects() {
         // given
         List<ProjectResponseDTO> projects = List.of(new ProjectResponseDTO(1L, "Project 1", "Description 1", List.of()));
-        when(projectService.getAllProjects()).thenReturn(projects);
+        when(projectService.getProjectsVersionStamp()).thenReturn(stamp);
+        when(projectService.getAllProjects(true)).thenReturn(projects);
 
         // when
-        ResponseEntity<List<ProjectResponseDTO>> response = projectController.getAllProjects();
+        ResponseEntity<List<ProjectResponseDTO>> response = projectController.getAllProjects(true, webRequest);
 
         // then
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(projects, response.getBody());
-        verify(projectService, times(1)).getAllProjects();
+        verify(projectService, times(1)).getAllProjects(true);
     }
 
     @Test
     void should_getProjectById_when_projectExists() {
         // given
         ProjectResponseDTO project = new ProjectResponseDTO(1L, "Project 1", "Description 1", List.of());
-        when(projectService.getProjectById(1L)).thenReturn(project);
+        when(projectService.getProjectVersionStamp(1L)).thenReturn(stamp);
+        when(projectService.getProjectById(1L, true)).thenReturn(project);
 
         // when
-        ResponseEntity<ProjectResponseDTO> response = projectController.getProjectById(1L);
+        ResponseEntity<ProjectResponseDTO> response = projectController.getProjectById(1L, true, webRequest);
 
         // then
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(project, response.getBody());
-        verify(projectService, times(1)).getProjectById(1L);
+        assertEquals(stamp.getLastModifiedMillis(), servletResponse.getDateHeader("Last-Modified"));
+        verify(projectService, times(1)).getProjectById(1L, true);
+    }
+
+    @Test
+    void should_returnNotModified_when_projectUnchangedSinceIfModifiedSince() {
+        // given
+        when(projectService.getProjectVersionStamp(1L)).thenReturn(stamp);
+        servletRequest.addHeader("If-Modified-Since", stamp.getLastModifiedMillis());
+
+        // when
+        ResponseEntity<ProjectResponseDTO> response = projectController.getProjectById(1L, true, webRequest);
+
+        // then
+        assertNull(response);
+        assertEquals(304, servletResponse.getStatus());
+        verify(projectService, never()).getProjectById(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void should_returnNotModified_when_projectETagMatches() {
+        // given
+        when(projectService.getProjectVersionStamp(1L)).thenReturn(stamp);
+        servletRequest.addHeader("If-None-Match", stamp.toWeakETag(1L, MediaType.APPLICATION_JSON));
+
+        // when
+        ResponseEntity<ProjectResponseDTO> response = projectController.getProjectById(1L, true, webRequest);
+
+        // then
+        assertNull(response);
+        assertEquals(304, servletResponse.getStatus());
+        assertEquals(stamp.toWeakETag(1L, MediaType.APPLICATION_JSON), servletResponse.getHeader("ETag"));
+        verify(projectService, never()).getProjectById(anyLong(), anyBoolean());
     }
 
     @Test
@@ -96,13 +161,32 @@ class ProjectControllerTest {
 
     @Test
     void should_deleteProject_when_projectExists() {
+        // given
+        when(projectDeletionService.deleteProject(1L, false, false)).thenReturn(deletionJob(ProjectDeletionStatus.COMPLETED));
+
         // when
-        ResponseEntity<Void> response = projectController.deleteProject(1L);
+        ResponseEntity<ProjectDeletionJobDTO> response = projectController.deleteProject(1L, false, false);
 
         // then
         assertNotNull(response);
         assertEquals(204, response.getStatusCodeValue());
-        verify(projectService, times(1)).deleteProject(1L);
+        assertNull(response.getBody());
+        verify(projectDeletionService, times(1)).deleteProject(1L, false, false);
+    }
+
+    @Test
+    void should_returnAcceptedWithJobLocation_when_deletionRunsInBackground() {
+        // given
+        ProjectDeletionJobDTO job = deletionJob(ProjectDeletionStatus.RUNNING);
+        when(projectDeletionService.deleteProject(1L, true, true)).thenReturn(job);
+
+        // when
+        ResponseEntity<ProjectDeletionJobDTO> response = projectController.deleteProject(1L, true, true);
+
+        // then
+        assertEquals(202, response.getStatusCodeValue());
+        assertEquals("/api/projects/deletions/job-1", response.getHeaders().getLocation().toString());
+        assertEquals(job, response.getBody());
     }
 
     @Test
@@ -115,7 +199,8 @@ class ProjectControllerTest {
                 pageRequest,
                 1
         );
-        when(projectService.searchProjects(null, "Project", null, pageRequest)).thenReturn(projectsPage);
+        when(projectService.getProjectsVersionStamp(null, "Project", null)).thenReturn(stamp);
+        when(projectService.searchProjects(null, "Project", null, true, pageRequest)).thenReturn(projectsPage);
 
         // when
         ResponseEntity<Page<ProjectResponseDTO>> response = projectController.searchProjects(
@@ -124,14 +209,16 @@ class ProjectControllerTest {
                 null,
                 0,
                 10,
-                new String[] {"id", "asc"}
+                new String[] {"id", "asc"},
+                true,
+                webRequest
         );
 
         // then
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(projectsPage, response.getBody());
-        verify(projectService, times(1)).searchProjects(null, "Project", null, pageRequest);
+        verify(projectService, times(1)).searchProjects(null, "Project", null, true, pageRequest);
     }
 
 
@@ -139,73 +226,90 @@ class ProjectControllerTest {
     void should_addTaskToProject_when_validIds() {
         // given
         ProjectResponseDTO responseDTO = new ProjectResponseDTO(1L, "Project 1", "Description 1", List.of());
-        when(projectService.addTaskToProject(1L, 1L)).thenReturn(responseDTO);
+        when(projectService.addTaskToProject(1L, 1L, true)).thenReturn(responseDTO);
 
         // when
-        ResponseEntity<ProjectResponseDTO> response = projectController.addTaskToProject(1L, 1L);
+        ResponseEntity<ProjectResponseDTO> response = projectController.addTaskToProject(1L, 1L, true);
 
         // then
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(responseDTO, response.getBody());
-        verify(projectService, times(1)).addTaskToProject(1L, 1L);
+        verify(projectService, times(1)).addTaskToProject(1L, 1L, true);
     }
 
     @Test
     void should_removeTaskFromProject_when_validIds() {
         // given
         ProjectResponseDTO responseDTO = new ProjectResponseDTO(1L, "Project 1", "Description 1", List.of());
-        when(projectService.removeTaskFromProject(1L, 1L)).thenReturn(responseDTO);
+        when(projectService.removeTaskFromProject(1L, 1L, true)).thenReturn(responseDTO);
 
         // when
-        ResponseEntity<ProjectResponseDTO> response = projectController.removeTaskFromProject(1L, 1L);
+        ResponseEntity<ProjectResponseDTO> response = projectController.removeTaskFromProject(1L, 1L, true);
 
         // then
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(responseDTO, response.getBody());
-        verify(projectService, times(1)).removeTaskFromProject(1L, 1L);
+        verify(projectService, times(1)).removeTaskFromProject(1L, 1L, true);
+    }
+
+    @Test
+    void should_returnAssignmentCounts_when_bulkAssigningTasks() {
+        // given
+        TaskAssignmentResponseDTO result = new TaskAssignmentResponseDTO(1L, 2, 0, List.of(9L));
+        when(projectService.assignTasksToProject(1L, List.of(3L, 4L, 9L))).thenReturn(result);
+
+        // when
+        ResponseEntity<TaskAssignmentResponseDTO> response = projectController.assignTasksToProject(1L, List.of(3L, 4L, 9L));
+
+        // then
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(result, response.getBody());
+        verify(projectService, never()).getProjectById(anyLong(), anyBoolean());
     }
 
     @Test
     void should_throwException_when_getProjectByIdAndProjectDoesNotExist() {
         // given
-        when(projectService.getProjectById(999L)).thenThrow(new RuntimeException("Project not found"));
+        when(projectService.getProjectVersionStamp(999L)).thenReturn(stamp);
+        when(projectService.getProjectById(999L, true)).thenThrow(new RuntimeException("Project not found"));
 
         // when
-        Exception exception = assertThrows(RuntimeException.class, () -> projectController.getProjectById(999L));
+        Exception exception = assertThrows(RuntimeException.class, () -> projectController.getProjectById(999L, true, webRequest));
 
         // then
         assertEquals("Project not found", exception.getMessage());
-        verify(projectService, times(1)).getProjectById(999L);
+        verify(projectService, times(1)).getProjectById(999L, true);
     }
 
     @Test
     void should_throwException_when_deleteNonExistentProject() {
         // given
-        doThrow(new RuntimeException("Project not found")).when(projectService).deleteProject(999L);
+        when(projectDeletionService.deleteProject(999L, false, false)).thenThrow(new RuntimeException("Project not found"));
 
         // when
-        Exception exception = assertThrows(RuntimeException.class, () -> projectController.deleteProject(999L));
+        Exception exception = assertThrows(RuntimeException.class, () -> projectController.deleteProject(999L, false, false));
 
         // then
         assertEquals("Project not found", exception.getMessage());
-        verify(projectService, times(1)).deleteProject(999L);
+        verify(projectDeletionService, times(1)).deleteProject(999L, false, false);
     }
 
     @Test
     void should_returnEmptyList_when_noProjectsExist() {
         // given
-        when(projectService.getAllProjects()).thenReturn(List.of());
+        when(projectService.getProjectsVersionStamp()).thenReturn(stamp);
+        when(projectService.getAllProjects(true)).thenReturn(List.of());
 
         // when
-        ResponseEntity<List<ProjectResponseDTO>> response = projectController.getAllProjects();
+        ResponseEntity<List<ProjectResponseDTO>> response = projectController.getAllProjects(true, webRequest);
 
         // then
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertTrue(response.getBody().isEmpty());
-        verify(projectService, times(1)).getAllProjects();
+        verify(projectService, times(1)).getAllProjects(true);
     }
 
     @Test
@@ -225,28 +329,28 @@ class ProjectControllerTest {
     @Test
     void should_throwException_when_addTaskToNonExistentProject() {
         // given
-        doThrow(new RuntimeException("Project or Task not found")).when(projectService).addTaskToProject(999L, 888L);
+        doThrow(new RuntimeException("Project or Task not found")).when(projectService).addTaskToProject(999L, 888L, true);
 
         // when
-        Exception exception = assertThrows(RuntimeException.class, () -> projectController.addTaskToProject(999L, 888L));
+        Exception exception = assertThrows(RuntimeException.class, () -> projectController.addTaskToProject(999L, 888L, true));
 
         // then
         assertEquals("Project or Task not found", exception.getMessage());
-        verify(projectService, times(1)).addTaskToProject(999L, 888L);
+        verify(projectService, times(1)).addTaskToProject(999L, 888L, true);
     }
 
     @Test
     void should_throwException_when_removeTaskNotInProject() {
         // given
         doThrow(new IllegalArgumentException("Task not assigned to this project"))
-                .when(projectService).removeTaskFromProject(1L, 999L);
+                .when(projectService).removeTaskFromProject(1L, 999L, true);
 
         // when
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> projectController.removeTaskFromProject(1L, 999L));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> projectController.removeTaskFromProject(1L, 999L, true));
 
         // then
         assertEquals("Task not assigned to this project", exception.getMessage());
-        verify(projectService, times(1)).removeTaskFromProject(1L, 999L);
+        verify(projectService, times(1)).removeTaskFromProject(1L, 999L, true);
     }
 
     @Test
@@ -254,19 +358,98 @@ class ProjectControllerTest {
         // given
         PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("id").ascending());
         Page<ProjectResponseDTO> emptyPage = Page.empty(pageRequest);
-        when(projectService.searchProjects(null, "NonExistentName", null, pageRequest)).thenReturn(emptyPage);
+        when(projectService.getProjectsVersionStamp(null, "NonExistentName", null)).thenReturn(stamp);
+        when(projectService.searchProjects(null, "NonExistentName", null, true, pageRequest)).thenReturn(emptyPage);
 
         // when
         ResponseEntity<Page<ProjectResponseDTO>> response = projectController.searchProjects(
-                null, "NonExistentName", null, 0, 10, new String[]{"id", "asc"}
+                null, "NonExistentName", null, 0, 10, new String[]{"id", "asc"}, true, webRequest
         );
 
         // then
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertTrue(response.getBody().isEmpty());
-        verify(projectService, times(1)).searchProjects(null, "NonExistentName", null, pageRequest);
+        verify(projectService, times(1)).searchProjects(null, "NonExistentName", null, true, pageRequest);
+    }
+
+    @Test
+    void should_getAllProjectSummaries() {
+        // given
+        List<ProjectSummaryDTO> summaries = List.of(
+                new ProjectSummaryDTO(1L, "Project 1", "Description 1", 1L, 0L, 0L, 2L, null));
+        when(projectService.getAllProjectSummaries()).thenReturn(summaries);
+
+        // when
+        ResponseEntity<List<ProjectSummaryDTO>> response = projectController.getAllProjectSummaries();
+
+        // then
+        assertNotNull(response);
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(summaries, response.getBody());
+        verify(projectService, times(1)).getAllProjectSummaries();
     }
 
+    @Test
+    void should_returnPageOfProjectTasks_when_filteredAndSorted() {
+        // given
+        PageRequest pageRequest = PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "dueDate"));
+        Page<TaskResponseDTO> tasksPage = new PageImpl<>(
+                List.of(new TaskResponseDTO(7L, "Task", null, Priority.HIGH, Status.TODO, null, 1L)), pageRequest, 6);
+        when(projectService.getProjectTasksVersionStamp(1L, Status.TODO, null, null, null)).thenReturn(stamp);
+        when(projectService.getProjectTasks(1L, Status.TODO, null, null, null, pageRequest)).thenReturn(tasksPage);
+
+        // when
+        ResponseEntity<Page<TaskResponseDTO>> response = projectController.getProjectTasks(
+                1L, Status.TODO, null, null, null, 1, 5, new String[]{"dueDate", "desc"}, webRequest);
+
+        // then
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(tasksPage, response.getBody());
+        assertEquals(stamp.toWeakETag(1L, 1, 5, "dueDate,desc", MediaType.APPLICATION_JSON),
+                servletResponse.getHeader("ETag"));
+    }
 
+    @Test
+    void should_returnProjectWithoutTasks_and_distinctETag_when_tasksOmitted() {
+        // given
+        ProjectResponseDTO project = new ProjectResponseDTO(1L, "Project 1", "Description 1", null);
+        when(projectService.getProjectVersionStamp(1L)).thenReturn(stamp);
+        when(projectService.getProjectById(1L, false)).thenReturn(project);
+        servletRequest.addHeader("If-None-Match", stamp.toWeakETag(1L, MediaType.APPLICATION_JSON));
+
+        // when
+        ResponseEntity<ProjectResponseDTO> response = projectController.getProjectById(1L, false, webRequest);
+
+        // then
+        assertEquals(200, response.getStatusCodeValue());
+        assertNull(response.getBody().getTasks());
+        assertNotEquals(stamp.toWeakETag(1L, MediaType.APPLICATION_JSON), servletResponse.getHeader("ETag"));
+    }
+
+    @Test
+    void should_searchProjectFields_and_keyETagByFields_when_fieldsRequested() {
+        // given
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "name"));
+        List<String> fields = List.of("id", "name");
+        Page<Map<String, Object>> projectsPage = new PageImpl<>(
+                List.of(Map.of("id", 1L, "name", "Project 1")), pageRequest, 1);
+        when(projectService.getProjectsVersionStamp(null, "Project", null)).thenReturn(stamp);
+        when(projectService.searchProjects(null, "Project", null, fields, pageRequest)).thenReturn(projectsPage);
+
+        // when
+        ResponseEntity<Page<Map<String, Object>>> response = projectController.searchProjects(
+                null, "Project", null, fields, 0, 10, new String[]{"name", "asc"}, webRequest);
+
+        // then
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(projectsPage, response.getBody());
+        assertEquals(stamp.toWeakETag(0, 10, "name,asc", "id,name", MediaType.APPLICATION_JSON),
+                servletResponse.getHeader("ETag"));
+        verify(projectService, never()).searchProjects(any(), any(), any(), anyBoolean(), any());
+    }
+
+    private static ProjectDeletionJobDTO deletionJob(ProjectDeletionStatus status) {
+        return new ProjectDeletionJobDTO("job-1", 1L, false, status, 3, 0, null, Instant.now(), null);
+    }
 }
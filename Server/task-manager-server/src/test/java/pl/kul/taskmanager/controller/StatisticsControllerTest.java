@@ -0,0 +1,51 @@
+package pl.kul.taskmanager.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.kul.taskmanager.dto.ProjectCompletionDTO;
+import pl.kul.taskmanager.dto.TaskStatisticsDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.stats.TaskStatistics;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StatisticsController.class)
+class StatisticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TaskStatistics taskStatistics;
+
+    @Test
+    void should_returnCountersSnapshot_when_statisticsRequested() throws Exception {
+        // given
+        TaskStatisticsDTO stats = new TaskStatisticsDTO(3, 1,
+                Map.of(Status.TODO, Map.of(Priority.HIGH, 3L)),
+                List.of(new ProjectCompletionDTO(7L, 3, 0, 0.0)),
+                null);
+        when(taskStatistics.snapshot()).thenReturn(stats);
+
+        // when
+        mockMvc.perform(get("/api/stats"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTasks", is(3)))
+                .andExpect(jsonPath("$.overdueTasks", is(1)))
+                .andExpect(jsonPath("$.tasksByStatusAndPriority.TODO.HIGH", is(3)))
+                .andExpect(jsonPath("$.projects[0].projectId", is(7)));
+
+        verify(taskStatistics, times(1)).snapshot();
+    }
+}
@@ -1,29 +1,50 @@
 package pl.kul.taskmanager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.*;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import pl.kul.taskmanager.dto.BatchFetchResponseDTO;
+import pl.kul.taskmanager.dto.BulkTaskResponseDTO;
+import pl.kul.taskmanager.dto.BulkTaskResultDTO;
+import pl.kul.taskmanager.dto.ExportFormat;
+import pl.kul.taskmanager.dto.TaskPatchDTO;
 import pl.kul.taskmanager.dto.TaskRequestDTO;
 import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.TaskSliceResponseDTO;
+import pl.kul.taskmanager.dto.TaskTransitionRequestDTO;
+import pl.kul.taskmanager.dto.TaskTransitionResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.exception.PreconditionFailedException;
 import pl.kul.taskmanager.exception.TaskNotFoundException;
 import pl.kul.taskmanager.model.Priority;
 import pl.kul.taskmanager.model.Status;
 import pl.kul.taskmanager.service.TaskService;
+import pl.kul.taskmanager.web.WebConfig;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,6 +53,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(TaskController.class)
+@Import(WebConfig.class)
 class TaskControllerTest {
 
     @Autowired
@@ -45,6 +67,7 @@ class TaskControllerTest {
 
     private TaskRequestDTO validTaskRequest;
     private TaskResponseDTO sampleResponseDTO;
+    private VersionStampDTO sampleStamp;
 
     @BeforeEach
     void setUp() {
@@ -63,6 +86,12 @@ class TaskControllerTest {
         sampleResponseDTO.setStatus(Status.TODO);
         sampleResponseDTO.setDueDate(LocalDate.now());
         sampleResponseDTO.setProjectId(null);
+
+        sampleStamp = new VersionStampDTO(1L, 3L, Instant.parse("2024-05-01T10:15:30Z"));
+        when(taskService.getTaskVersionStamp(anyLong())).thenReturn(sampleStamp);
+        when(taskService.getTasksVersionStamp()).thenReturn(sampleStamp);
+        when(taskService.getTasksVersionStamp(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(sampleStamp);
     }
 
     @Test
@@ -155,6 +184,53 @@ class TaskControllerTest {
         verify(taskService, times(1)).getTaskById(100L);
     }
 
+    @Test
+    void should_returnNotModified_when_taskETagMatches() throws Exception {
+        // given
+        String eTag = sampleStamp.toETag(1L, MediaType.APPLICATION_JSON);
+
+        // when
+        mockMvc.perform(get("/api/tasks/{id}", 1L).header("If-None-Match", eTag))
+                .andDo(print())
+                // then
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        verify(taskService, never()).getTaskById(anyLong());
+    }
+
+    @Test
+    void should_returnTaskWithValidators_when_taskETagDiffers() throws Exception {
+        // given
+        when(taskService.getTaskById(eq(1L))).thenReturn(sampleResponseDTO);
+
+        // when
+        mockMvc.perform(get("/api/tasks/{id}", 1L).header("If-None-Match", "\"stale\""))
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", sampleStamp.toETag(1L, MediaType.APPLICATION_JSON)))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    void should_returnNotModified_when_searchETagMatches() throws Exception {
+        // given
+        String eTag = sampleStamp.toWeakETag(0, 10, "id,asc", MediaType.APPLICATION_JSON);
+
+        // when
+        mockMvc.perform(get("/api/tasks/search")
+                        .param("status", "TODO")
+                        .header("If-None-Match", eTag))
+                .andDo(print())
+                // then
+                .andExpect(status().isNotModified());
+
+        verify(taskService, never()).searchTasks(any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     void should_updateTask_when_validRequest() throws Exception {
         // given
@@ -324,7 +400,309 @@ class TaskControllerTest {
 
         verify(taskService, never()).createTask(org.mockito.ArgumentMatchers.any(TaskRequestDTO.class));
     }
-}
 
+    @Test
+    void should_searchTasksWithCursor_when_afterTokenProvided() throws Exception {
+        // given
+        TaskSliceResponseDTO slice = new TaskSliceResponseDTO(List.of(sampleResponseDTO), 1, true, "next-token");
+        when(taskService.searchTasksAfter(
+                eq(Status.TODO), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null),
+                eq("dueDate"), eq(Sort.Direction.DESC), eq("token"), eq(1))
+        ).thenReturn(slice);
+
+        // when
+        mockMvc.perform(get("/api/tasks/search/cursor")
+                        .param("status", "TODO")
+                        .param("after", "token")
+                        .param("size", "1")
+                        .param("sort", "dueDate,desc")
+                )
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(sampleResponseDTO.getId().intValue())))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is("next-token")))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_streamTasksAsCsv_when_exportRequested() throws Exception {
+        // given
+        sampleResponseDTO.setDescription("Line, with \"quotes\"");
+        doAnswer(invocation -> {
+            Consumer<TaskResponseDTO> consumer = invocation.getArgument(8);
+            consumer.accept(sampleResponseDTO);
+            return null;
+        }).when(taskService).exportTasks(eq(Status.TODO), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null),
+                org.mockito.ArgumentMatchers.any(Consumer.class));
 
+        // when
+        mockMvc.perform(get("/api/tasks/export")
+                        .param("status", "TODO")
+                        .param("format", ExportFormat.CSV.name())
+                )
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(
+                        "id,name,description,priority,status,dueDate,projectId\n"
+                                + "1,Test Task,\"Line, with \"\"quotes\"\"\",HIGH,TODO," + sampleResponseDTO.getDueDate() + ",\n"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_streamTasksAsNdjson_when_exportRequestedWithoutFormat() throws Exception {
+        // given
+        doAnswer(invocation -> {
+            Consumer<TaskResponseDTO> consumer = invocation.getArgument(8);
+            consumer.accept(sampleResponseDTO);
+            consumer.accept(sampleResponseDTO);
+            return null;
+        }).when(taskService).exportTasks(eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null), eq(null),
+                org.mockito.ArgumentMatchers.any(Consumer.class));
+
+        // when
+        String line = objectMapper.writeValueAsString(sampleResponseDTO);
+        mockMvc.perform(get("/api/tasks/export"))
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    void should_reportPerItemResults_when_bulkCreatingTasks() throws Exception {
+        // given
+        BulkTaskResponseDTO bulkResponse = new BulkTaskResponseDTO(1, 1, List.of(
+                new BulkTaskResultDTO(0, 1L, List.of()),
+                new BulkTaskResultDTO(1, null, List.of("name: Name must be between 3 and 100 characters"))));
+        when(taskService.createTasks(org.mockito.ArgumentMatchers.anyList())).thenReturn(bulkResponse);
+
+        // when
+        mockMvc.perform(post("/api/tasks/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(validTaskRequest, new TaskRequestDTO()))))
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.results[0].id", is(1)))
+                .andExpect(jsonPath("$.results[1].errors[0]", containsString("Name must be between")));
+    }
+
+    @Test
+    void should_returnTasksAndMissingIds_when_fetchingByIds() throws Exception {
+        // given
+        when(taskService.getTasksByIds(List.of(1L, 99L)))
+                .thenReturn(new BatchFetchResponseDTO<>(List.of(sampleResponseDTO), List.of(99L)));
+
+        // when
+        mockMvc.perform(get("/api/tasks").param("ids", "1,99"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(99)));
+
+        verify(taskService, never()).getAllTasks();
+    }
+
+    @Test
+    void should_returnTasksAndMissingIds_when_lookingUpIdsFromBody() throws Exception {
+        // given
+        when(taskService.getTasksByIds(List.of(1L, 99L)))
+                .thenReturn(new BatchFetchResponseDTO<>(List.of(sampleResponseDTO), List.of(99L)));
+
+        // when
+        mockMvc.perform(post("/api/tasks/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 99]"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(99)));
+    }
+
+    @Test
+    void should_patchTask_when_mergePatchSent() throws Exception {
+        // given
+        sampleResponseDTO.setStatus(Status.DONE);
+        when(taskService.patchTask(eq(1L), any(TaskPatchDTO.class), eq("\"abc\""))).thenReturn(sampleResponseDTO);
+
+        // when
+        mockMvc.perform(patch("/api/tasks/{id}", 1L)
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "\"abc\"")
+                        .content("{\"status\": \"DONE\", \"description\": null}"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("DONE")));
+
+        verify(taskService, times(1)).patchTask(eq(1L), argThat(patch ->
+                patch.getChanges().keySet().equals(Set.of("status", "description"))
+                        && patch.getDescription() == null), eq("\"abc\""));
+    }
+
+    @Test
+    void should_returnPreconditionFailed_when_patchVersionIsStale() throws Exception {
+        // given
+        when(taskService.patchTask(eq(1L), any(TaskPatchDTO.class), eq("\"old\"")))
+                .thenThrow(new PreconditionFailedException("Task 1 was modified since the given ETag"));
+
+        // when
+        mockMvc.perform(patch("/api/tasks/{id}", 1L)
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "\"old\"")
+                        .content("{\"status\": \"DONE\"}"))
+                // then
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void should_returnAffectedCounts_when_transitioningTasks() throws Exception {
+        // given
+        when(taskService.transitionTasks(any(TaskTransitionRequestDTO.class)))
+                .thenReturn(new TaskTransitionResponseDTO(2, 1, 1, List.of(99L)));
+
+        // when
+        mockMvc.perform(post("/api/tasks/transition")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1, 2, 99], \"targetStatus\": \"DONE\"}"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched", is(2)))
+                .andExpect(jsonPath("$.updated", is(1)))
+                .andExpect(jsonPath("$.unchanged", is(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(99)));
+
+        verify(taskService, times(1)).transitionTasks(argThat(request ->
+                request.getIds().equals(List.of(1L, 2L, 99L)) && request.getTargetStatus() == Status.DONE));
+    }
+
+    @Test
+    void should_serializeRequestedFieldsOnly_when_fieldsRequested() throws Exception {
+        // given
+        when(taskService.getTaskById(1L, List.of("id", "name"))).thenReturn(Map.of("id", 1L, "name", "Test Task"));
+
+        // when
+        mockMvc.perform(get("/api/tasks/{id}", 1L).param("fields", "id,name"))
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", sampleStamp.toETag(1L, "id,name", MediaType.APPLICATION_JSON)))
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.name", is("Test Task")))
+                .andExpect(jsonPath("$.status").doesNotExist());
+
+        verify(taskService, never()).getTaskById(1L);
+    }
+
+    @Test
+    void should_searchRequestedFieldsOnly_when_fieldsRequested() throws Exception {
+        // given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dueDate"));
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", 1L);
+        row.put("dueDate", null);
+        when(taskService.searchTasks(eq(Status.TODO), any(), any(), any(), any(), any(), any(), any(),
+                eq(List.of("id", "dueDate")), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(row), pageable, 1));
+
+        // when
+        mockMvc.perform(get("/api/tasks/search")
+                        .param("status", "TODO")
+                        .param("fields", "id,dueDate")
+                        .param("sort", "dueDate,desc"))
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[0].dueDate", nullValue()))
+                .andExpect(jsonPath("$.content[0].name").doesNotExist());
+
+        verify(taskService, never()).searchTasks(any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void should_returnBadRequest_when_unsupportedFieldRequested() throws Exception {
+        // given
+        when(taskService.getAllTasks(List.of("secret")))
+                .thenThrow(new IllegalArgumentException("Unsupported field: secret"));
+
+        // when
+        mockMvc.perform(get("/api/tasks").param("fields", "secret"))
+                .andDo(print())
+                // then
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Unsupported field: secret")));
+
+        verify(taskService, never()).getAllTasks();
+    }
+
+    @Test
+    void should_encodeResponseAsSmile_when_acceptRequestsIt() throws Exception {
+        // given
+        when(taskService.getTaskById(eq(1L))).thenReturn(sampleResponseDTO);
+
+        // when
+        byte[] body = mockMvc.perform(get("/api/tasks/{id}", 1L).accept(WebConfig.APPLICATION_SMILE))
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WebConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        TaskResponseDTO decoded = objectMapper.copyWith(new SmileFactory()).readValue(body, TaskResponseDTO.class);
+        assertEquals(sampleResponseDTO, decoded);
+    }
+
+    @Test
+    void should_keepJsonAsDefault_when_acceptIsWildcard() throws Exception {
+        // given
+        when(taskService.getTaskById(eq(1L))).thenReturn(sampleResponseDTO);
+
+        // when
+        mockMvc.perform(get("/api/tasks/{id}", 1L).accept(MediaType.ALL))
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void should_keyETagByNegotiatedFormat_and_varyByAccept_when_smileRequested() throws Exception {
+        // given
+        String jsonETag = sampleStamp.toETag(1L, MediaType.APPLICATION_JSON);
+        when(taskService.getTaskById(eq(1L))).thenReturn(sampleResponseDTO);
+
+        // when
+        mockMvc.perform(get("/api/tasks/{id}", 1L)
+                        .accept(WebConfig.APPLICATION_SMILE)
+                        .header("If-None-Match", jsonETag))
+                .andDo(print())
+                // then
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WebConfig.APPLICATION_SMILE))
+                .andExpect(header().string("ETag", sampleStamp.toETag(1L, WebConfig.APPLICATION_SMILE)))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+    }
+
+    @Test
+    void should_sendVaryAccept_when_returningNotModified() throws Exception {
+        // given
+        String eTag = sampleStamp.toWeakETag(0, 10, "id,asc", WebConfig.APPLICATION_SMILE);
+
+        // when
+        mockMvc.perform(get("/api/tasks/search")
+                        .accept("application/x-jackson-smile, application/json;q=0.9")
+                        .header("If-None-Match", eTag))
+                .andDo(print())
+                // then
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+    }
+}
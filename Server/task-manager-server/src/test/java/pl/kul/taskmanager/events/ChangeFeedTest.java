@@ -0,0 +1,222 @@
+package pl.kul.taskmanager.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.kul.taskmanager.dto.ChangeEventDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private ChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = new ChangeFeed(3, 10, Duration.ofMinutes(1), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.destroy();
+    }
+
+    @Test
+    void should_pushCommittedChanges_toLiveSubscribers() throws Exception {
+        // given
+        RecordingEmitter emitter = new RecordingEmitter();
+        changeFeed.subscribe(emitter, null, null, null);
+
+        // when
+        changeFeed.taskCreated(task(1L, Status.TODO, null));
+        changeFeed.projectDeleted(5L);
+
+        // then
+        ChangeEventDTO created = emitter.next();
+        assertEquals(1L, created.getId());
+        assertEquals(ChangeType.CREATED, created.getType());
+        assertEquals(ChangeEntity.TASK, created.getEntity());
+        ChangeEventDTO deleted = emitter.next();
+        assertEquals(ChangeType.DELETED, deleted.getType());
+        assertEquals(ChangeEntity.PROJECT, deleted.getEntity());
+    }
+
+    @Test
+    void should_replayBufferedEvents_when_resumingFromLastEventId() throws Exception {
+        // given
+        changeFeed.taskCreated(task(1L, Status.TODO, null));
+        changeFeed.taskCreated(task(2L, Status.TODO, null));
+        changeFeed.taskCreated(task(3L, Status.TODO, null));
+
+        // when
+        RecordingEmitter emitter = new RecordingEmitter();
+        changeFeed.subscribe(emitter, 1L, null, null);
+        changeFeed.taskDeleted(task(1L, Status.TODO, null));
+
+        // then
+        assertEquals(List.of(2L, 3L, 4L), List.of(emitter.next().getId(), emitter.next().getId(), emitter.next().getId()));
+    }
+
+    @Test
+    void should_sendReset_when_lastEventIdFellOutOfTheBuffer() throws Exception {
+        // given
+        for (long id = 1; id <= 5; id++) {
+            changeFeed.taskCreated(task(id, Status.TODO, null));
+        }
+
+        // when
+        RecordingEmitter emitter = new RecordingEmitter();
+        changeFeed.subscribe(emitter, 1L, null, null);
+
+        // then
+        assertTrue(emitter.nextText().contains("event:" + ChangeFeed.RESET_EVENT_NAME + "\n"));
+    }
+
+    @Test
+    void should_deliverOnlyMatchingEvents_when_filteredByProjectAndStatus() throws Exception {
+        // given
+        RecordingEmitter emitter = new RecordingEmitter();
+        changeFeed.subscribe(emitter, null, 10L, Status.TODO);
+
+        // when
+        changeFeed.taskCreated(task(1L, Status.TODO, 20L));
+        changeFeed.taskCreated(task(2L, Status.DONE, 10L));
+        changeFeed.taskAssigned(task(3L, Status.TODO, null), 10L);
+
+        // then
+        ChangeEventDTO assigned = emitter.next();
+        assertEquals(3L, assigned.getEntityId());
+        assertEquals(10L, assigned.getPreviousProjectId());
+        assertNull(emitter.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void should_sendFromVirtualThread_when_virtualThreadsEnabled() throws Exception {
+        // given
+        ChangeFeed virtualFeed = new ChangeFeed(3, 10, Duration.ofMinutes(1), true);
+        RecordingEmitter emitter = new RecordingEmitter();
+        virtualFeed.subscribe(emitter, null, null, null);
+
+        // when
+        try {
+            virtualFeed.taskCreated(task(1L, Status.TODO, null));
+
+            // then
+            assertEquals(1L, emitter.next().getId());
+            assertTrue(emitter.sentOnVirtualThread);
+        } finally {
+            virtualFeed.destroy();
+        }
+    }
+
+    @Test
+    void should_dropOnlyStalledSubscriber_when_itsQueueOverflows() throws Exception {
+        // given
+        ChangeFeed smallQueueFeed = new ChangeFeed(3, 2, Duration.ofMinutes(1), false);
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter live = new RecordingEmitter();
+        smallQueueFeed.subscribe(stalled, null, null, null);
+        smallQueueFeed.subscribe(live, null, null, null);
+
+        try {
+            smallQueueFeed.taskCreated(task(1L, Status.TODO, null));
+            assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+            assertEquals(1L, live.next().getId());
+
+            // when & then
+            for (long id = 2; id <= 5; id++) {
+                smallQueueFeed.taskCreated(task(id, Status.TODO, null));
+                assertEquals(id, live.next().getId());
+            }
+            stalled.release.countDown();
+            assertTrue(stalled.failed.await(5, TimeUnit.SECONDS));
+            assertEquals(1, stalled.sent.get());
+        } finally {
+            stalled.release.countDown();
+            smallQueueFeed.destroy();
+        }
+    }
+
+    @Test
+    void should_rejectConfiguration_when_bufferOrQueueIsEmpty() {
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> new ChangeFeed(0, 2, Duration.ofMinutes(1), false));
+        assertThrows(IllegalArgumentException.class, () -> new ChangeFeed(3, 0, Duration.ofMinutes(1), false));
+    }
+
+    private static TaskResponseDTO task(Long id, Status status, Long projectId) {
+        return new TaskResponseDTO(id, "Task " + id, null, Priority.LOW, status, null, projectId);
+    }
+
+    // Blocks in its first send like a client whose TCP window is full
+    private static class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch failed = new CountDownLatch(1);
+        private final AtomicInteger sent = new AtomicInteger();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sent.incrementAndGet();
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed.countDown();
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<SseEventBuilder> events = new LinkedBlockingQueue<>();
+        private volatile boolean sentOnVirtualThread;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sentOnVirtualThread = Thread.currentThread().isVirtual();
+            events.add(builder);
+        }
+
+        ChangeEventDTO next() throws InterruptedException {
+            return poll().build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(ChangeEventDTO.class::isInstance)
+                    .map(ChangeEventDTO.class::cast)
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        String nextText() throws InterruptedException {
+            StringBuilder text = new StringBuilder();
+            poll().build().forEach(part -> text.append(part.getData()));
+            return text.toString();
+        }
+
+        private SseEventBuilder poll() throws InterruptedException {
+            SseEventBuilder builder = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(builder, "No event was sent");
+            return builder;
+        }
+    }
+}
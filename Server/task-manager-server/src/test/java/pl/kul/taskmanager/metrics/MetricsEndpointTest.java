@@ -0,0 +1,44 @@
+package pl.kul.taskmanager.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void should_exposeRequestServiceHibernatePoolAndJvmMetrics_when_prometheusScraped() throws Exception {
+        // given
+        mockMvc.perform(get("/api/tasks/search").param("status", "TODO"))
+                .andExpect(status().isOk());
+
+        // when
+        mockMvc.perform(get("/actuator/prometheus"))
+                // then
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("uri=\"/api/tasks/search\""),
+                        containsString("taskmanager_service_seconds_bucket{"),
+                        containsString("method=\"searchTasks\""),
+                        containsString("hibernate_statements_total"),
+                        containsString("hibernate_entities_loads_total"),
+                        containsString("hikaricp_connections_active"),
+                        containsString("jvm_gc_memory_allocated_bytes_total"))));
+    }
+}
@@ -0,0 +1,88 @@
+package pl.kul.taskmanager.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Project;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.model.Task;
+import pl.kul.taskmanager.repository.ProjectRepository;
+import pl.kul.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every @QueryBudget endpoint runs against real queries with enforcement on, so an exceeded budget fails the request;
+// tasks are spread over several projects, which is what turns a per-project query into an N+1
+@SpringBootTest(properties = {
+        "taskmanager.sql.enforce-query-budget=true",
+        "spring.datasource.url=jdbc:h2:mem:budgets"})
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Long projectId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Project project = projectRepository.save(new Project(null, "Budget project " + i, "Description " + i,
+                    new ArrayList<>()));
+            for (int j = 0; j < 4; j++) {
+                tasks.add(new Task(null, "Budget task " + i + "-" + j, "Description " + j, Priority.MEDIUM,
+                        Status.TODO, LocalDate.of(2030, 1, 1).plusDays(j), project));
+            }
+        }
+        List<Task> saved = taskRepository.saveAll(tasks);
+        projectId = saved.getFirst().getProject().getId();
+        taskId = saved.getFirst().getId();
+    }
+
+    @Test
+    void should_stayWithinBudget_when_readingTasks() throws Exception {
+        // given
+        String task = "/api/tasks/" + taskId;
+
+        // when & then
+        mockMvc.perform(get("/api/tasks")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks").param("fields", "id,name,projectId")).andExpect(status().isOk());
+        mockMvc.perform(get(task)).andExpect(status().isOk());
+        mockMvc.perform(get(task).param("fields", "id,status")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/search").param("size", "5")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/search").param("fields", "id,name").param("size", "5"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/search/cursor").param("size", "5")).andExpect(status().isOk());
+    }
+
+    @Test
+    void should_stayWithinBudget_when_readingProjects() throws Exception {
+        // given
+        String project = "/api/projects/" + projectId;
+
+        // when & then
+        mockMvc.perform(get("/api/projects")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/projects").param("includeTasks", "false")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/projects").param("fields", "id,name")).andExpect(status().isOk());
+        mockMvc.perform(get(project + "/tasks").param("size", "2")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/projects/summary")).andExpect(status().isOk());
+        mockMvc.perform(get(project + "/summary")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,142 @@
+package pl.kul.taskmanager.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import pl.kul.taskmanager.exception.QueryBudgetExceededException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementFilterTest {
+
+    private final SqlStatementTracker tracker = new SqlStatementTracker(Duration.ofMillis(100));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockHttpServletRequest request;
+    private HandlerMapping handlerMapping;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        HandlerMethod handler = new HandlerMethod(new BudgetedHandler(), BudgetedHandler.class.getMethod("list"));
+        handlerMapping = _ -> new HandlerExecutionChain(handler);
+        request = new MockHttpServletRequest("GET", "/api/projects");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/projects");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler);
+    }
+
+    @Test
+    void should_countRequestStatements_when_withinBudget() throws Exception {
+        // given
+        SqlStatementFilter filter = new SqlStatementFilter(tracker, meterRegistry, true, () -> handlerMapping);
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), executing(2));
+
+        // then
+        assertEquals(2.0, meterRegistry.get(SqlStatementFilter.STATEMENTS_METRIC)
+                .tag("uri", "/api/projects").summary().totalAmount());
+    }
+
+    @Test
+    void should_failRequest_when_budgetExceededAndEnforced() {
+        // given
+        SqlStatementFilter filter = new SqlStatementFilter(tracker, meterRegistry, true, () -> handlerMapping);
+
+        // when & then
+        QueryBudgetExceededException exception = assertThrows(QueryBudgetExceededException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), executing(3)));
+        assertEquals("GET /api/projects executed 3 SQL statements, its budget is 2", exception.getMessage());
+    }
+
+    @Test
+    void should_sendBufferedBody_when_withinBudgetAndEnforced() throws Exception {
+        // given
+        SqlStatementFilter filter = new SqlStatementFilter(tracker, meterRegistry, true, () -> handlerMapping);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(request, response, writing("[]", 2));
+
+        // then
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void should_discardBody_when_budgetExceededAndEnforced() {
+        // given
+        SqlStatementFilter filter = new SqlStatementFilter(tracker, meterRegistry, true, () -> handlerMapping);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when & then
+        assertThrows(QueryBudgetExceededException.class, () -> filter.doFilter(request, response, writing("[]", 3)));
+        assertFalse(response.isCommitted());
+        assertEquals("", response.getContentAsString());
+        assertNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    void should_onlyRecord_when_budgetExceededButNotEnforced() throws Exception {
+        // given
+        SqlStatementFilter filter = new SqlStatementFilter(tracker, meterRegistry, false, () -> handlerMapping);
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), executing(3));
+
+        // then
+        assertEquals(3.0, meterRegistry.get(SqlStatementFilter.STATEMENTS_METRIC).summary().totalAmount());
+    }
+
+    @Test
+    void should_ignoreStatements_when_executedOutsideRequest() throws Exception {
+        // given
+        SqlStatementFilter filter = new SqlStatementFilter(tracker, meterRegistry, true, () -> handlerMapping);
+        execute(5);
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), executing(1));
+
+        // then
+        assertEquals(1.0, meterRegistry.get(SqlStatementFilter.STATEMENTS_METRIC).summary().totalAmount());
+    }
+
+    private FilterChain executing(int statements) {
+        return (_, _) -> execute(statements);
+    }
+
+    // Writes and flushes the body first, like a handler whose statements run while the response is rendered
+    private FilterChain writing(String body, int statements) {
+        return (_, response) -> {
+            ((HttpServletResponse) response).setHeader("ETag", "\"1\"");
+            response.getWriter().write(body);
+            response.flushBuffer();
+            execute(statements);
+        };
+    }
+
+    private void execute(int statements) {
+        for (int i = 0; i < statements; i++) {
+            ExecutionInfo executionInfo = new ExecutionInfo();
+            executionInfo.setElapsedTime(1);
+            tracker.afterQuery(executionInfo, List.of(new QueryInfo("select * from project where id = ?")));
+        }
+    }
+
+    static class BudgetedHandler {
+
+        @QueryBudget(2)
+        public void list() {
+        }
+    }
+}
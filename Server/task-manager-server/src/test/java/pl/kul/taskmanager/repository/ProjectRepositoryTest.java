@@ -0,0 +1,120 @@
+package pl.kul.taskmanager.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import pl.kul.taskmanager.dto.ProjectResponseDTO;
+import pl.kul.taskmanager.dto.ProjectSummaryDTO;
+import pl.kul.taskmanager.mapper.ProjectMapper;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Project;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.model.Task;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProjectRepositoryTest {
+
+    private static final int PROJECT_COUNT = 60;
+    private static final int TASKS_PER_PROJECT = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PROJECT_COUNT; i++) {
+            Project project = new Project();
+            project.setName("Project " + i);
+            entityManager.persist(project);
+            for (int j = 0; j < TASKS_PER_PROJECT; j++) {
+                entityManager.persist(new Task(null, "Task " + i + "-" + j, null, Priority.LOW, Status.TODO, null, project));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void should_loadProjectsWithTasksInSingleQuery_when_findAll() {
+        // when
+        List<ProjectResponseDTO> projects = projectRepository.findAll().stream()
+                .map(ProjectMapper::toDTO)
+                .toList();
+
+        // then
+        assertEquals(PROJECT_COUNT, projects.size());
+        assertTrue(projects.stream().allMatch(project -> project.getTasks().size() == TASKS_PER_PROJECT));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void should_batchFetchTasks_when_searchingProjectsPage() {
+        // when
+        Page<ProjectResponseDTO> page = projectRepository
+                .findAll(Specification.where(null), PageRequest.of(0, 50, Sort.by("id")))
+                .map(ProjectMapper::toDTO);
+
+        // then
+        assertEquals(50, page.getNumberOfElements());
+        assertTrue(page.getContent().stream().allMatch(project -> project.getTasks().size() == TASKS_PER_PROJECT));
+        // page select + count + one batched select of tasks for the whole page
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void should_aggregateTaskCountsWithoutLoadingTasks_when_findAllSummaries() {
+        // when
+        List<ProjectSummaryDTO> summaries = projectRepository.findAllSummaries();
+
+        // then
+        assertEquals(PROJECT_COUNT, summaries.size());
+        assertEquals(TASKS_PER_PROJECT, summaries.getFirst().getTaskCounts().get(Status.TODO));
+        assertEquals(0L, summaries.getFirst().getTaskCounts().get(Status.DONE));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void should_returnNextDueDateOfOpenTasks_when_findSummaryById() {
+        // given
+        Project project = new Project();
+        project.setName("Due Dates");
+        entityManager.persist(project);
+        LocalDate soon = LocalDate.now().plusDays(1);
+        entityManager.persist(new Task(null, "Done early", null, Priority.LOW, Status.DONE, LocalDate.now(), project));
+        entityManager.persist(new Task(null, "Open soon", null, Priority.LOW, Status.TODO, soon, project));
+        entityManager.persist(new Task(null, "Open later", null, Priority.LOW, Status.BLOCKED, soon.plusDays(5), project));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        ProjectSummaryDTO summary = projectRepository.findSummaryById(project.getId()).orElseThrow();
+
+        // then
+        assertEquals(soon, summary.getNextDueDate());
+        assertEquals(1L, summary.getTaskCounts().get(Status.DONE));
+        assertEquals(1L, summary.getTaskCounts().get(Status.BLOCKED));
+    }
+}
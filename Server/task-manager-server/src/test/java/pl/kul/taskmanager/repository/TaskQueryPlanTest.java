@@ -0,0 +1,131 @@
+package pl.kul.taskmanager.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Project;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.model.Task;
+import pl.kul.taskmanager.specification.TaskSpecification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "pl.kul.taskmanager.repository.TaskQueryPlanTest$CapturingStatementInspector")
+class TaskQueryPlanTest {
+
+    private static final LocalDate FROM = LocalDate.now();
+    private static final LocalDate TO = LocalDate.now().plusDays(30);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        project = new Project();
+        project.setName("Plans");
+        entityManager.persist(project);
+        for (int i = 0; i < 200; i++) {
+            entityManager.persist(new Task(null, "Task " + i, null,
+                    Priority.values()[i % Priority.values().length],
+                    Status.values()[i % Status.values().length],
+                    FROM.plusDays(i % 60),
+                    i % 2 == 0 ? project : null));
+        }
+        entityManager.flush();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void should_useIndex_when_filteringByStatus() {
+        assertIndexUsed(TaskSpecification.hasStatus(Status.TODO), Status.TODO.name());
+    }
+
+    @Test
+    void should_useIndex_when_filteringByStatusAndDueDateRange() {
+        assertIndexUsed(TaskSpecification.hasStatus(Status.TODO)
+                        .and(TaskSpecification.dueDateAfterOrEqual(FROM))
+                        .and(TaskSpecification.dueDateBeforeOrEqual(TO)),
+                Status.TODO.name(), FROM, TO);
+    }
+
+    @Test
+    void should_useIndex_when_filteringByPriorityAndDueDate() {
+        assertIndexUsed(TaskSpecification.hasPriority(Priority.HIGH)
+                        .and(TaskSpecification.dueDateAfterOrEqual(FROM)),
+                Priority.HIGH.name(), FROM);
+    }
+
+    @Test
+    void should_useIndex_when_filteringByProject() {
+        assertIndexUsed(TaskSpecification.belongsToProject(project.getId()), project.getId());
+    }
+
+    @Test
+    void should_useIndex_when_filteringByProjectAndStatus() {
+        assertIndexUsed(TaskSpecification.belongsToProject(project.getId())
+                        .and(TaskSpecification.hasStatus(Status.BLOCKED)),
+                project.getId(), Status.BLOCKED.name());
+    }
+
+    @Test
+    void should_useIndex_when_filteringByDueDateRange() {
+        assertIndexUsed(TaskSpecification.dueDateAfterOrEqual(FROM)
+                        .and(TaskSpecification.dueDateBeforeOrEqual(TO)),
+                FROM, TO);
+    }
+
+    @Test
+    void should_reuseProjectIndex_forForeignKey_when_schemaMigrated() {
+        // when
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'TASKS'", String.class);
+
+        // then
+        assertTrue(indexes.contains("IDX_TASKS_PROJECT_ID_STATUS"), indexes::toString);
+        assertTrue(indexes.stream().noneMatch(name -> name.startsWith("FK_")), indexes::toString);
+    }
+
+    private void assertIndexUsed(Specification<Task> spec, Object... parameters) {
+        CapturingStatementInspector.lastSql = null;
+        taskRepository.findAll(spec);
+        String sql = CapturingStatementInspector.lastSql;
+        assertNotNull(sql);
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+
+        assertNotNull(plan);
+        assertFalse(plan.contains("tableScan"), () -> "Full table scan for: " + sql + "\n" + plan);
+        assertTrue(plan.contains("IDX_TASKS_"), () -> "No task index used for: " + sql + "\n" + plan);
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static volatile String lastSql;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("tasks")) {
+                lastSql = sql;
+            }
+            return sql;
+        }
+    }
+}
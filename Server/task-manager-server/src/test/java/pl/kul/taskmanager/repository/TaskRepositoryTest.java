@@ -0,0 +1,249 @@
+package pl.kul.taskmanager.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Project;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.model.Task;
+import pl.kul.taskmanager.specification.TaskSpecification;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TaskRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void should_streamFilteredTasksAsDtos_when_streamAll() {
+        // given
+        Project project = new Project();
+        project.setName("Export");
+        entityManager.persist(project);
+        entityManager.persist(new Task(null, "Assigned", null, Priority.HIGH, Status.TODO, null, project));
+        entityManager.persist(new Task(null, "Unassigned", null, Priority.LOW, Status.TODO, null, null));
+        entityManager.persist(new Task(null, "Finished", null, Priority.LOW, Status.DONE, null, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<TaskResponseDTO> tasks;
+        try (Stream<TaskResponseDTO> stream = taskRepository.streamAll(TaskSpecification.hasStatus(Status.TODO), 2)) {
+            tasks = stream.toList();
+        }
+
+        // then
+        assertEquals(2, tasks.size());
+        assertEquals(project.getId(), tasks.get(0).getProjectId());
+        assertNull(tasks.get(1).getProjectId());
+        assertFalse(entityManager.getEntityManager().contains(project));
+    }
+
+    @Test
+    void should_changeVersionStamp_when_matchingTaskIsUpdatedOrLeavesTheSet() {
+        // given
+        Task first = new Task(null, "First", null, Priority.HIGH, Status.TODO, null, null);
+        Task second = new Task(null, "Second", null, Priority.LOW, Status.TODO, null, null);
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.flush();
+        VersionStampDTO initial = taskRepository.findVersionStamp(TaskSpecification.hasStatus(Status.TODO));
+
+        // when
+        first.setName("First renamed");
+        entityManager.flush();
+        VersionStampDTO afterUpdate = taskRepository.findVersionStamp(TaskSpecification.hasStatus(Status.TODO));
+
+        second.setStatus(Status.DONE);
+        entityManager.flush();
+        VersionStampDTO afterLeaving = taskRepository.findVersionStamp(TaskSpecification.hasStatus(Status.TODO));
+
+        // then
+        assertEquals(2, initial.getCount());
+        assertEquals(1L, first.getVersion());
+        assertNotEquals(initial.toETag(), afterUpdate.toETag());
+        assertEquals(1, afterLeaving.getCount());
+        assertNotEquals(afterUpdate.toETag(), afterLeaving.toETag());
+    }
+
+    @Test
+    void should_updateOnlyGivenColumns_and_bumpVersion_when_versionMatches() {
+        // given
+        Task task = new Task(null, "Patched", "Keep me", Priority.LOW, Status.TODO, null, null);
+        entityManager.persist(task);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        int staleUpdates = taskRepository.updateFields(task.getId(), 7L, Map.of("status", Status.DONE));
+        int updates = taskRepository.updateFields(task.getId(), 0L, Map.of("status", Status.DONE));
+        entityManager.clear();
+
+        // then
+        Task reloaded = entityManager.find(Task.class, task.getId());
+        assertEquals(0, staleUpdates);
+        assertEquals(1, updates);
+        assertEquals(Status.DONE, reloaded.getStatus());
+        assertEquals("Keep me", reloaded.getDescription());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    @Test
+    void should_updateOnlyTasksAtExpectedVersion_and_bumpTheirVersions_when_updatingByVersions() {
+        // given
+        Task first = new Task(null, "First", null, Priority.LOW, Status.TODO, null, null);
+        Task second = new Task(null, "Second", null, Priority.LOW, Status.TODO, null, null);
+        Task stale = new Task(null, "Stale", null, Priority.LOW, Status.TODO, null, null);
+        Task untouched = new Task(null, "Untouched", null, Priority.LOW, Status.TODO, null, null);
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.persist(stale);
+        entityManager.persist(untouched);
+        entityManager.flush();
+        taskRepository.updateFields(first.getId(), 0L, Map.of("name", "First renamed"));
+        entityManager.clear();
+
+        // when
+        int updates = taskRepository.updateFieldsByVersions(
+                Map.of(first.getId(), 1L, second.getId(), 0L, stale.getId(), 5L),
+                Map.of("status", Status.IN_PROGRESS, "priority", Priority.HIGH));
+        entityManager.clear();
+
+        // then
+        assertEquals(2, updates);
+        Task reloaded = entityManager.find(Task.class, second.getId());
+        assertEquals(Status.IN_PROGRESS, reloaded.getStatus());
+        assertEquals(Priority.HIGH, reloaded.getPriority());
+        assertEquals(1L, reloaded.getVersion());
+        assertEquals(2L, entityManager.find(Task.class, first.getId()).getVersion());
+        assertEquals(Status.TODO, entityManager.find(Task.class, stale.getId()).getStatus());
+        assertEquals(Status.TODO, entityManager.find(Task.class, untouched.getId()).getStatus());
+        assertEquals(0L, entityManager.find(Task.class, untouched.getId()).getVersion());
+    }
+
+    @Test
+    void should_detachOnlyTasksOfGivenProject_when_detachingByIds() {
+        // given
+        Project project = new Project();
+        project.setName("Detach");
+        entityManager.persist(project);
+        Task task = new Task(null, "Assigned", null, Priority.LOW, Status.TODO, null, project);
+        entityManager.persist(task);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<TaskResponseDTO> chunk = taskRepository.findStatesByProjectId(project.getId(), PageRequest.ofSize(10));
+        int otherProject = taskRepository.detachFromProject(project.getId() + 1, List.of(task.getId()), Instant.now());
+        int detached = taskRepository.detachFromProject(project.getId(), List.of(task.getId()), Instant.now());
+        entityManager.clear();
+
+        // then
+        assertEquals(1, chunk.size());
+        assertEquals(0, otherProject);
+        assertEquals(1, detached);
+        assertEquals(0, taskRepository.countByProjectId(project.getId()));
+        Task reloaded = entityManager.find(Task.class, task.getId());
+        assertNull(reloaded.getProject());
+        assertEquals(1L, reloaded.getVersion());
+    }
+
+    @Test
+    void should_pageAndSortProjectTasksAsDtos_when_findingStates() {
+        // given
+        Project project = new Project();
+        project.setName("Paged");
+        entityManager.persist(project);
+        for (int day = 1; day <= 5; day++) {
+            entityManager.persist(new Task(null, "Task " + day, null, Priority.LOW, Status.TODO,
+                    LocalDate.of(2030, 1, day), project));
+        }
+        entityManager.persist(new Task(null, "Elsewhere", null, Priority.LOW, Status.TODO, null, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        Page<TaskResponseDTO> page = taskRepository.findStates(TaskSpecification.belongsToProject(project.getId()),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "dueDate")));
+
+        // then
+        assertEquals(5, page.getTotalElements());
+        assertEquals(List.of("Task 3", "Task 2"), page.getContent().stream().map(TaskResponseDTO::getName).toList());
+        assertEquals(project.getId(), page.getContent().getFirst().getProjectId());
+        assertFalse(entityManager.getEntityManager().contains(project));
+    }
+
+    @Test
+    void should_assignTasksThroughProjectReference_when_updatingByVersions() {
+        // given
+        Project project = new Project();
+        project.setName("Target");
+        entityManager.persist(project);
+        Task task = new Task(null, "Loose", null, Priority.LOW, Status.TODO, null, null);
+        entityManager.persist(task);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        Project reference = entityManager.getEntityManager().getReference(Project.class, project.getId());
+        int assigned = taskRepository.updateFieldsByVersions(Map.of(task.getId(), 0L), Map.of("project", reference));
+        entityManager.clear();
+
+        // then
+        assertEquals(1, assigned);
+        assertEquals(1, taskRepository.countByProjectId(project.getId()));
+        assertEquals(1L, entityManager.find(Task.class, task.getId()).getVersion());
+    }
+
+    @Test
+    void should_selectOnlyRequestedColumns_when_findingFields() {
+        // given
+        Project project = new Project();
+        project.setName("Sparse");
+        entityManager.persist(project);
+        entityManager.persist(new Task(null, "Early", "Hidden", Priority.LOW, Status.TODO,
+                LocalDate.of(2030, 1, 1), project));
+        entityManager.persist(new Task(null, "Late", "Hidden", Priority.HIGH, Status.TODO,
+                LocalDate.of(2030, 2, 1), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        Page<Map<String, Object>> page = taskRepository.findFields(TaskSpecification.hasStatus(Status.TODO),
+                List.of("name", "projectId", "name"), PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dueDate")));
+
+        // then
+        assertEquals(2, page.getTotalElements());
+        Map<String, Object> first = page.getContent().getFirst();
+        assertEquals(List.of("name", "projectId"), List.copyOf(first.keySet()));
+        assertEquals("Late", first.get("name"));
+        assertNull(first.get("projectId"));
+        assertEquals(project.getId(), page.getContent().get(1).get("projectId"));
+        assertFalse(entityManager.getEntityManager().contains(project));
+    }
+
+    @Test
+    void should_rejectUnsupportedField_when_findingFields() {
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> taskRepository.findFields(
+                TaskSpecification.hasStatus(Status.TODO), List.of("id", "project"), PageRequest.ofSize(10)));
+    }
+}
@@ -0,0 +1,150 @@
+package pl.kul.taskmanager.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FullTextIndexTest {
+
+    private FullTextIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new FullTextIndex(true);
+        index.index(IndexedType.TASK, 1L, "Prepare release notes", "Collect changes for the release");
+        index.index(IndexedType.TASK, 2L, "Fix login bug", "Release blocker reported by QA");
+        index.index(IndexedType.TASK, 3L, "Write documentation", null);
+        index.index(IndexedType.PROJECT, 1L, "Release train", null);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.destroy();
+    }
+
+    @Test
+    void should_rankNameMatchesFirst_when_searchingAllFields() {
+        // when
+        List<Long> ids = index.search(IndexedType.TASK, "release", 10, FullTextIndex.NAME, FullTextIndex.DESCRIPTION);
+
+        // then
+        assertEquals(List.of(1L, 2L), ids);
+    }
+
+    @Test
+    void should_matchWordPrefixes_when_searching() {
+        // when
+        List<Long> ids = index.search(IndexedType.TASK, "Docu", 10, FullTextIndex.NAME);
+
+        // then
+        assertEquals(List.of(3L), ids);
+    }
+
+    @Test
+    void should_requireEveryKeyword_when_searchingWithManyWords() {
+        // when
+        List<Long> ids = index.search(IndexedType.TASK, "release bug", 10, FullTextIndex.NAME, FullTextIndex.DESCRIPTION);
+
+        // then
+        assertEquals(List.of(2L), ids);
+    }
+
+    @Test
+    void should_reflectUpdatesAndDeletes_when_documentsChange() {
+        // when
+        index.index(IndexedType.TASK, 3L, "Release checklist", null);
+        index.remove(IndexedType.TASK, 1L);
+
+        // then
+        assertEquals(List.of(3L), index.search(IndexedType.TASK, "checklist", 10, FullTextIndex.NAME));
+        assertTrue(index.search(IndexedType.TASK, "documentation", 10, FullTextIndex.NAME).isEmpty());
+        assertFalse(index.search(IndexedType.TASK, "notes", 10, FullTextIndex.NAME).contains(1L));
+    }
+
+    @Test
+    void should_keepTypesSeparate_when_searching() {
+        // when
+        List<Long> ids = index.search(IndexedType.PROJECT, "release", 10, FullTextIndex.NAME, FullTextIndex.DESCRIPTION);
+
+        // then
+        assertEquals(List.of(1L), ids);
+    }
+
+    @Test
+    void should_returnAllMatches_or_nothing_when_searchingWithHitLimit() {
+        // when
+        Optional<List<Long>> withinLimit = index.searchAll(IndexedType.TASK, "release", 2, FullTextIndex.NAME, FullTextIndex.DESCRIPTION);
+        Optional<List<Long>> overLimit = index.searchAll(IndexedType.TASK, "release", 1, FullTextIndex.NAME, FullTextIndex.DESCRIPTION);
+        Optional<List<Long>> noWords = index.searchAll(IndexedType.TASK, "--", 10, FullTextIndex.NAME);
+
+        // then
+        assertEquals(List.of(1L, 2L), withinLimit.orElseThrow());
+        assertTrue(overLimit.isEmpty());
+        assertTrue(noWords.isEmpty());
+    }
+
+    @Test
+    void should_publishBatchWritesTogether_when_batchIsClosed() {
+        // when
+        List<Long> duringBatch;
+        try (FullTextIndex.Batch batch = index.batch()) {
+            batch.clear(IndexedType.TASK);
+            batch.index(IndexedType.TASK, 4L, "Plan sprint", null);
+            duringBatch = index.search(IndexedType.TASK, "release", 10, FullTextIndex.NAME, FullTextIndex.DESCRIPTION);
+        }
+
+        // then
+        assertEquals(List.of(1L, 2L), duringBatch);
+        assertTrue(index.search(IndexedType.TASK, "release", 10, FullTextIndex.NAME, FullTextIndex.DESCRIPTION).isEmpty());
+        assertEquals(List.of(4L), index.search(IndexedType.TASK, "sprint", 10, FullTextIndex.NAME));
+    }
+
+    @Test
+    void should_applyBatchOnlyAfterCommit_when_transactionActive() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            try (FullTextIndex.Batch batch = index.batch()) {
+                batch.remove(IndexedType.TASK, 3L);
+                batch.index(IndexedType.TASK, 4L, "Plan sprint", null);
+            }
+            List<Long> beforeCommit = index.search(IndexedType.TASK, "sprint", 10, FullTextIndex.NAME);
+
+            // when
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // then
+            assertTrue(beforeCommit.isEmpty());
+            assertEquals(List.of(4L), index.search(IndexedType.TASK, "sprint", 10, FullTextIndex.NAME));
+            assertTrue(index.search(IndexedType.TASK, "documentation", 10, FullTextIndex.NAME).isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void should_leaveIndexUntouched_when_transactionRollsBack() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.remove(IndexedType.TASK, 3L);
+
+            // when
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        assertEquals(List.of(3L), index.search(IndexedType.TASK, "documentation", 10, FullTextIndex.NAME));
+    }
+}
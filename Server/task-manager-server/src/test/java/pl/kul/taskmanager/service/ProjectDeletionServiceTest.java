@@ -0,0 +1,209 @@
+package pl.kul.taskmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import pl.kul.taskmanager.cache.CacheEvictor;
+import pl.kul.taskmanager.dto.ProjectDeletionJobDTO;
+import pl.kul.taskmanager.dto.ProjectDeletionStatus;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.events.ChangeFeed;
+import pl.kul.taskmanager.exception.ProjectDeletionJobNotFoundException;
+import pl.kul.taskmanager.exception.ProjectNotFoundException;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.repository.ProjectRepository;
+import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.search.FullTextIndex;
+import pl.kul.taskmanager.search.IndexedType;
+import pl.kul.taskmanager.stats.TaskStatistics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectDeletionServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private FullTextIndex fullTextIndex;
+
+    @Mock
+    private FullTextIndex.Batch indexBatch;
+
+    @Mock
+    private CacheEvictor cacheEvictor;
+
+    @Mock
+    private TaskStatistics taskStatistics;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProjectDeletionService projectDeletionService;
+
+    private final TaskResponseDTO first = task(1L);
+    private final TaskResponseDTO second = task(2L);
+    private final TaskResponseDTO third = task(3L);
+
+    @BeforeEach
+    void setUp() {
+        projectDeletionService = new ProjectDeletionService(projectRepository, taskRepository, fullTextIndex,
+                cacheEvictor, taskStatistics, changeFeed, transactionManager, CHUNK_SIZE, 5, Duration.ofHours(1), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectDeletionService.destroy();
+    }
+
+    @Test
+    void should_deleteTasksInChunks_thenProjectRow_when_deletingSmallProject() {
+        // given
+        when(projectRepository.existsById(10L)).thenReturn(true);
+        when(taskRepository.countByProjectId(10L)).thenReturn(3L);
+        when(taskRepository.findStatesByProjectId(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(first, second), List.of(third));
+        when(fullTextIndex.batch()).thenReturn(indexBatch);
+
+        // when
+        ProjectDeletionJobDTO job = projectDeletionService.deleteProject(10L, false, false);
+
+        // then
+        assertEquals(ProjectDeletionStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessedTasks());
+        verify(taskRepository, times(1)).deleteRowsByIdIn(List.of(1L, 2L));
+        verify(taskRepository, times(1)).deleteRowsByIdIn(List.of(3L));
+        verify(taskRepository, never()).delete(any());
+        verify(projectRepository, times(1)).deleteRowById(10L);
+        verify(projectRepository, never()).deleteById(anyLong());
+        verify(cacheEvictor, times(1)).evictTasks(List.of(1L, 2L));
+        verify(taskStatistics, times(1)).taskDeleted(third);
+        verify(taskStatistics, times(1)).projectDeleted(10L, List.of());
+        verify(changeFeed, times(1)).taskDeleted(first);
+        verify(changeFeed, times(1)).projectDeleted(10L);
+        verify(fullTextIndex, times(1)).remove(IndexedType.PROJECT, 10L);
+        verify(indexBatch, times(1)).remove(IndexedType.TASK, 1L);
+        verify(indexBatch, times(1)).remove(IndexedType.TASK, 2L);
+        verify(indexBatch, times(1)).remove(IndexedType.TASK, 3L);
+        verify(indexBatch, times(2)).close();
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void should_detachTasks_insteadOfDeletingThem_when_requested() {
+        // given
+        when(projectRepository.existsById(10L)).thenReturn(true);
+        when(taskRepository.countByProjectId(10L)).thenReturn(1L);
+        when(taskRepository.findStatesByProjectId(eq(10L), any(Pageable.class))).thenReturn(List.of(third));
+
+        // when
+        projectDeletionService.deleteProject(10L, true, false);
+
+        // then
+        TaskResponseDTO detached = new TaskResponseDTO(3L, "Task 3", null, Priority.LOW, Status.TODO, null, null);
+        verify(taskRepository, times(1)).detachFromProject(eq(10L), eq(List.of(3L)), any(Instant.class));
+        verify(taskRepository, never()).deleteRowsByIdIn(anyCollection());
+        verify(taskStatistics, times(1)).taskUpdated(third, detached);
+        verify(changeFeed, times(1)).taskAssigned(detached, 10L);
+        verify(projectRepository, times(1)).deleteRowById(10L);
+    }
+
+    @Test
+    void should_runBackgroundJob_and_reportProgress_when_projectExceedsThreshold() throws InterruptedException {
+        // given
+        when(projectRepository.existsById(10L)).thenReturn(true);
+        when(taskRepository.countByProjectId(10L)).thenReturn(50L);
+        when(taskRepository.findStatesByProjectId(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(first, second), List.of(third));
+        when(fullTextIndex.batch()).thenReturn(indexBatch);
+
+        // when
+        ProjectDeletionJobDTO started = projectDeletionService.deleteProject(10L, false, false);
+        ProjectDeletionJobDTO polled = projectDeletionService.getJob(started.getId());
+        for (int attempt = 0; attempt < 100 && polled.getFinishedAt() == null; attempt++) {
+            Thread.sleep(20);
+            polled = projectDeletionService.getJob(started.getId());
+        }
+
+        // then
+        assertEquals(ProjectDeletionStatus.QUEUED, started.getStatus());
+        assertEquals(50, started.getTotalTasks());
+        assertEquals(ProjectDeletionStatus.COMPLETED, polled.getStatus());
+        assertEquals(3, polled.getProcessedTasks());
+        assertNotNull(polled.getFinishedAt());
+        verify(transactionManager, times(2)).commit(any());
+        verify(projectRepository, times(1)).deleteRowById(10L);
+        verify(indexBatch, times(3)).remove(eq(IndexedType.TASK), anyLong());
+    }
+
+    @Test
+    void should_returnJobInFlight_insteadOfDeletingAgain_when_projectIsAlreadyBeingDeleted()
+            throws InterruptedException {
+        // given
+        CountDownLatch draining = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(projectRepository.existsById(10L)).thenReturn(true);
+        when(taskRepository.countByProjectId(10L)).thenReturn(50L, 1L);
+        when(taskRepository.findStatesByProjectId(eq(10L), any(Pageable.class))).thenAnswer(_ -> {
+            draining.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        // when
+        ProjectDeletionJobDTO queued = projectDeletionService.deleteProject(10L, false, true);
+        assertTrue(draining.await(5, TimeUnit.SECONDS));
+        ProjectDeletionJobDTO inline = projectDeletionService.deleteProject(10L, false, false);
+        ProjectDeletionJobDTO repeated = projectDeletionService.deleteProject(10L, true, true);
+        release.countDown();
+
+        // then
+        assertEquals(ProjectDeletionStatus.QUEUED, queued.getStatus());
+        assertEquals(queued.getId(), inline.getId());
+        assertEquals(ProjectDeletionStatus.RUNNING, inline.getStatus());
+        assertEquals(queued.getId(), repeated.getId());
+        assertFalse(repeated.isDetachTasks());
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(taskRepository, times(1)).findStatesByProjectId(eq(10L), any(Pageable.class));
+    }
+
+    @Test
+    void should_throwException_when_projectOrJobDoesNotExist() {
+        // given
+        when(projectRepository.existsById(1L)).thenReturn(false);
+
+        // when & then
+        Exception exception = assertThrows(ProjectNotFoundException.class,
+                () -> projectDeletionService.deleteProject(1L, false, false));
+        assertEquals("Project not found with ID: 1", exception.getMessage());
+        assertThrows(ProjectDeletionJobNotFoundException.class, () -> projectDeletionService.getJob("missing"));
+        verify(projectRepository, never()).deleteRowById(anyLong());
+    }
+
+    private static TaskResponseDTO task(Long id) {
+        return new TaskResponseDTO(id, "Task " + id, null, Priority.LOW, Status.TODO, null, 10L);
+    }
+}
@@ -11,20 +11,32 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import pl.kul.taskmanager.cache.CacheEvictor;
+import pl.kul.taskmanager.dto.BatchFetchResponseDTO;
 import pl.kul.taskmanager.dto.ProjectRequestDTO;
 import pl.kul.taskmanager.dto.ProjectResponseDTO;
+import pl.kul.taskmanager.dto.ProjectSummaryDTO;
+import pl.kul.taskmanager.dto.TaskAssignmentResponseDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.events.ChangeFeed;
 import pl.kul.taskmanager.exception.ProjectNotFoundException;
+import pl.kul.taskmanager.exception.TaskNotFoundException;
 import pl.kul.taskmanager.model.Priority;
 import pl.kul.taskmanager.model.Project;
 import pl.kul.taskmanager.model.Status;
 import pl.kul.taskmanager.model.Task;
 import pl.kul.taskmanager.repository.ProjectRepository;
 import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.search.FullTextIndex;
+import pl.kul.taskmanager.search.IndexedType;
+import pl.kul.taskmanager.stats.TaskStatistics;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +51,18 @@ class ProjectServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private FullTextIndex fullTextIndex;
+
+    @Mock
+    private CacheEvictor cacheEvictor;
+
+    @Mock
+    private TaskStatistics taskStatistics;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
     @InjectMocks
     private ProjectService projectService;
 
@@ -63,6 +87,7 @@ class ProjectServiceTest {
         assertNotNull(response);
         assertEquals(sampleProject.getId(), response.getId());
         verify(projectRepository, times(1)).save(any(Project.class));
+        verify(fullTextIndex, times(1)).index(IndexedType.PROJECT, 1L, "Sample Project", "Sample Description");
     }
 
     @Test
@@ -71,7 +96,7 @@ class ProjectServiceTest {
         when(projectRepository.findAll()).thenReturn(List.of(sampleProject));
 
         // when
-        List<ProjectResponseDTO> response = projectService.getAllProjects();
+        List<ProjectResponseDTO> response = projectService.getAllProjects(true);
 
         // then
         assertNotNull(response);
@@ -81,72 +106,113 @@ class ProjectServiceTest {
     }
 
     @Test
-    void should_getProjectById_when_projectExists() {
+    void should_notLoadTasks_when_projectsRequestedWithoutTasks() {
         // given
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(sampleProject));
+        when(projectRepository.findAllWithoutTasks()).thenReturn(List.of(sampleProject));
 
         // when
-        ProjectResponseDTO response = projectService.getProjectById(1L);
+        List<ProjectResponseDTO> response = projectService.getAllProjects(false);
 
         // then
-        assertNotNull(response);
-        assertEquals(sampleProject.getId(), response.getId());
-        verify(projectRepository, times(1)).findById(1L);
+        assertNull(response.getFirst().getTasks());
+        verify(projectRepository, never()).findAll();
     }
 
     @Test
-    void should_throwException_when_getProjectByIdAndProjectDoesNotExist() {
+    void should_throwException_when_projectTasksRequestedForMissingProject() {
         // given
-        when(projectRepository.findById(1L)).thenReturn(Optional.empty());
+        Pageable pageable = PageRequest.of(0, 20);
+        when(taskRepository.findStates(any(), eq(pageable))).thenReturn(Page.empty(pageable));
+        when(projectRepository.existsById(1L)).thenReturn(false);
+
+        // when & then
+        assertThrows(ProjectNotFoundException.class,
+                () -> projectService.getProjectTasks(1L, null, null, null, null, pageable));
+    }
+
+    @Test
+    void should_skipProjectLookup_when_projectTasksPageIsNotEmpty() {
+        // given
+        Pageable pageable = PageRequest.of(0, 20);
+        TaskResponseDTO task = new TaskResponseDTO(1L, "Task", null, Priority.LOW, Status.TODO, null, 1L);
+        when(taskRepository.findStates(any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(task), pageable, 1));
 
         // when
-        Exception exception = assertThrows(ProjectNotFoundException.class, () -> projectService.getProjectById(1L));
+        Page<TaskResponseDTO> response = projectService.getProjectTasks(1L, Status.TODO, null, null, null, pageable);
 
         // then
-        assertEquals("Project not found with ID: 1", exception.getMessage());
-        verify(projectRepository, times(1)).findById(1L);
+        assertEquals(List.of(task), response.getContent());
+        verify(projectRepository, never()).existsById(anyLong());
+        verify(projectRepository, never()).findById(anyLong());
     }
 
     @Test
-    void should_updateProject_when_projectExists() {
+    void should_getProjectSummary_when_projectExists() {
+        // given
+        ProjectSummaryDTO summary = new ProjectSummaryDTO(1L, "Sample Project", "Sample Description",
+                2L, 1L, 0L, 3L, LocalDate.now().plusDays(2));
+        when(projectRepository.findSummaryById(1L)).thenReturn(Optional.of(summary));
+
+        // when
+        ProjectSummaryDTO response = projectService.getProjectSummaryById(1L);
+
+        // then
+        assertEquals(2L, response.getTaskCounts().get(Status.TODO));
+        assertEquals(3L, response.getTaskCounts().get(Status.DONE));
+        verify(projectRepository, never()).findById(anyLong());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void should_throwException_when_getProjectSummaryAndProjectDoesNotExist() {
+        // given
+        when(projectRepository.findSummaryById(1L)).thenReturn(Optional.empty());
+
+        // when & then
+        assertThrows(ProjectNotFoundException.class, () -> projectService.getProjectSummaryById(1L));
+    }
+
+    @Test
+    void should_getProjectById_when_projectExists() {
         // given
         when(projectRepository.findById(1L)).thenReturn(Optional.of(sampleProject));
-        when(projectRepository.save(any(Project.class))).thenReturn(sampleProject);
 
         // when
-        ProjectResponseDTO response = projectService.updateProject(1L, sampleProjectRequest);
+        ProjectResponseDTO response = projectService.getProjectById(1L, true);
 
         // then
         assertNotNull(response);
         assertEquals(sampleProject.getId(), response.getId());
         verify(projectRepository, times(1)).findById(1L);
-        verify(projectRepository, times(1)).save(any(Project.class));
     }
 
     @Test
-    void should_deleteProject_when_projectExists() {
+    void should_throwException_when_getProjectByIdAndProjectDoesNotExist() {
         // given
-        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(projectRepository.findById(1L)).thenReturn(Optional.empty());
 
         // when
-        projectService.deleteProject(1L);
+        Exception exception = assertThrows(ProjectNotFoundException.class, () -> projectService.getProjectById(1L, true));
 
         // then
-        verify(projectRepository, times(1)).existsById(1L);
-        verify(projectRepository, times(1)).deleteById(1L);
+        assertEquals("Project not found with ID: 1", exception.getMessage());
+        verify(projectRepository, times(1)).findById(1L);
     }
 
     @Test
-    void should_throwException_when_deleteProjectAndProjectDoesNotExist() {
+    void should_updateProject_when_projectExists() {
         // given
-        when(projectRepository.existsById(1L)).thenReturn(false);
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(sampleProject));
+        when(projectRepository.save(any(Project.class))).thenReturn(sampleProject);
 
         // when
-        Exception exception = assertThrows(ProjectNotFoundException.class, () -> projectService.deleteProject(1L));
+        ProjectResponseDTO response = projectService.updateProject(1L, sampleProjectRequest);
 
         // then
-        assertEquals("Project not found with ID: 1", exception.getMessage());
-        verify(projectRepository, times(1)).existsById(1L);
+        assertNotNull(response);
+        assertEquals(sampleProject.getId(), response.getId());
+        verify(projectRepository, times(1)).findById(1L);
+        verify(projectRepository, times(1)).save(any(Project.class));
     }
 
     @Test
@@ -157,7 +223,7 @@ class ProjectServiceTest {
         when(projectRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(projectPage);
 
         // when
-        Page<ProjectResponseDTO> response = projectService.searchProjects(null, "Sample", null, pageable);
+        Page<ProjectResponseDTO> response = projectService.searchProjects(null, "Sample", null, true, pageable);
 
         // then
         assertNotNull(response);
@@ -174,7 +240,7 @@ class ProjectServiceTest {
         when(projectRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(projectPage);
 
         // when
-        Page<ProjectResponseDTO> response = projectService.searchProjects(sampleProject.getId(), null, null, pageable);
+        Page<ProjectResponseDTO> response = projectService.searchProjects(sampleProject.getId(), null, null, true, pageable);
 
         // then
         assertNotNull(response);
@@ -192,7 +258,7 @@ class ProjectServiceTest {
         when(projectRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(projectPage);
 
         // when
-        Page<ProjectResponseDTO> response = projectService.searchProjects(null, null, "Sample Description", pageable);
+        Page<ProjectResponseDTO> response = projectService.searchProjects(null, null, "Sample Description", true, pageable);
 
         // then
         assertNotNull(response);
@@ -203,83 +269,173 @@ class ProjectServiceTest {
 
 
     @Test
-    void should_addTaskToProject_when_validIds() {
+    void should_addTaskToProject_withSingleForeignKeyUpdate_when_validIds() {
         // given
-        Task sampleTask = new Task(1L, "Sample Task", "Task Description", Priority.HIGH, Status.TODO, LocalDate.now(), null);
-        sampleProject.setTasks(new ArrayList<>());
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(sampleProject));
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(sampleTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(sampleTask);
-        when(projectRepository.save(any(Project.class))).thenReturn(sampleProject);
+        TaskResponseDTO before = new TaskResponseDTO(1L, "Sample Task", null, Priority.HIGH, Status.TODO, null, null,
+                0L);
+        Task assigned = new Task(1L, "Sample Task", null, Priority.HIGH, Status.TODO, null, sampleProject);
+        Project reference = new Project();
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findStatesByIdIn(List.of(1L))).thenReturn(List.of(before));
+        when(projectRepository.getReferenceById(1L)).thenReturn(reference);
+        when(taskRepository.updateFieldsByVersions(Map.of(1L, 0L), Map.of("project", reference))).thenReturn(1);
+        when(projectRepository.findAllWithTasksByIdIn(List.of(1L)))
+                .thenReturn(List.of(new Project(1L, "Sample Project", "Sample Description", List.of(assigned))));
 
         // when
-        ProjectResponseDTO response = projectService.addTaskToProject(1L, 1L);
+        ProjectResponseDTO response = projectService.addTaskToProject(1L, 1L, true);
 
         // then
-        assertNotNull(response);
         assertEquals(1, response.getTasks().size());
         assertEquals("Sample Task", response.getTasks().getFirst().getName());
-        verify(projectRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).save(any(Task.class));
-        verify(projectRepository, times(1)).save(any(Project.class));
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(projectRepository, never()).save(any(Project.class));
+        verify(cacheEvictor, times(1)).evictTasks(List.of(1L));
+        verify(cacheEvictor, times(1)).evictProject(1L);
     }
 
+    @Test
+    void should_evictBothProjects_and_moveStatistics_when_taskMovedBetweenProjects() {
+        // given
+        TaskResponseDTO before = new TaskResponseDTO(1L, "Sample Task", null, Priority.HIGH, Status.TODO, null, 2L, 3L);
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findStatesByIdIn(List.of(1L))).thenReturn(List.of(before));
+        when(taskRepository.updateFieldsByVersions(eq(Map.of(1L, 3L)), anyMap())).thenReturn(1);
+
+        // when
+        projectService.assignTasksToProject(1L, List.of(1L));
+
+        // then
+        verify(cacheEvictor, times(1)).evictProject(1L);
+        verify(cacheEvictor, times(1)).evictProject(2L);
+        verify(taskStatistics, times(1)).taskUpdated(
+                argThat(task -> task.getProjectId() == 2L),
+                argThat(task -> task.getProjectId() == 1L));
+        verify(changeFeed, times(1)).taskAssigned(argThat(task -> task.getProjectId() == 1L), eq(2L));
+    }
+
+    @Test
+    void should_reportUpdatedUnchangedAndMissing_when_bulkAssigning() {
+        // given
+        TaskResponseDTO unassigned = new TaskResponseDTO(1L, "First", null, Priority.LOW, Status.TODO, null, null, 0L);
+        TaskResponseDTO alreadyAssigned = new TaskResponseDTO(2L, "Second", null, Priority.LOW, Status.TODO, null, 1L,
+                0L);
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findStatesByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(unassigned, alreadyAssigned));
+        when(taskRepository.updateFieldsByVersions(eq(Map.of(1L, 0L)), anyMap())).thenReturn(1);
+
+        // when
+        TaskAssignmentResponseDTO result = projectService.assignTasksToProject(1L, List.of(1L, 2L, 3L));
+
+        // then
+        assertEquals(new TaskAssignmentResponseDTO(1L, 1, 1, List.of(3L)), result);
+        verify(taskStatistics, times(1)).taskUpdated(any(), any());
+        verify(projectRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void should_detachOnlyTasksOfProject_when_bulkUnassigning() {
+        // given
+        TaskResponseDTO assigned = new TaskResponseDTO(1L, "First", null, Priority.LOW, Status.TODO, null, 1L, 2L);
+        TaskResponseDTO elsewhere = new TaskResponseDTO(2L, "Second", null, Priority.LOW, Status.TODO, null, 5L, 0L);
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findStatesByIdIn(List.of(1L, 2L))).thenReturn(List.of(assigned, elsewhere));
+        when(taskRepository.updateFieldsByVersions(Map.of(1L, 2L), Collections.singletonMap("project", null)))
+                .thenReturn(1);
+
+        // when
+        TaskAssignmentResponseDTO result = projectService.unassignTasksFromProject(1L, List.of(1L, 2L));
+
+        // then
+        assertEquals(new TaskAssignmentResponseDTO(1L, 1, 1, List.of()), result);
+        verify(changeFeed, times(1)).taskAssigned(argThat(task -> task.getProjectId() == null), eq(1L));
+        verify(cacheEvictor, never()).evictProject(5L);
+    }
 
     @Test
-    void should_removeTaskFromProject_when_validIds() {
+    void should_removeTaskFromProject_withoutLoadingTasks_when_tasksOmitted() {
         // given
-        Task sampleTask = new Task(1L, "Sample Task", "Task Description", Priority.HIGH, Status.TODO, LocalDate.now(), sampleProject);
-        sampleProject.setTasks(new ArrayList<>(List.of(sampleTask))); // Ustaw modyfikowalną listę
+        TaskResponseDTO before = new TaskResponseDTO(1L, "Sample Task", null, Priority.HIGH, Status.TODO, null, 1L, 0L);
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findStatesByIdIn(List.of(1L))).thenReturn(List.of(before));
+        when(taskRepository.updateFieldsByVersions(eq(Map.of(1L, 0L)), anyMap())).thenReturn(1);
         when(projectRepository.findById(1L)).thenReturn(Optional.of(sampleProject));
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(sampleTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(sampleTask);
-        when(projectRepository.save(any(Project.class))).thenReturn(sampleProject);
 
         // when
-        ProjectResponseDTO response = projectService.removeTaskFromProject(1L, 1L);
+        ProjectResponseDTO response = projectService.removeTaskFromProject(1L, 1L, false);
 
         // then
-        assertNotNull(response);
-        assertTrue(response.getTasks().isEmpty());
-        verify(projectRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).save(any(Task.class));
-        verify(projectRepository, times(1)).save(any(Project.class));
+        assertNull(response.getTasks());
+        verify(projectRepository, never()).findAllWithTasksByIdIn(any());
     }
 
+    @Test
+    void should_rollBackReassignment_when_taskMovedBetweenReadAndUpdate() {
+        // given
+        TaskResponseDTO first = new TaskResponseDTO(1L, "First", null, Priority.LOW, Status.TODO, null, 2L, 1L);
+        TaskResponseDTO second = new TaskResponseDTO(2L, "Second", null, Priority.LOW, Status.TODO, null, null, 0L);
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findStatesByIdIn(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(taskRepository.updateFieldsByVersions(eq(Map.of(1L, 1L, 2L, 0L)), anyMap())).thenReturn(1);
+
+        // when & then
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> projectService.assignTasksToProject(1L, List.of(1L, 2L)));
+        verify(cacheEvictor, never()).evictTasks(any());
+        verify(taskStatistics, never()).taskUpdated(any(), any());
+        verify(changeFeed, never()).taskAssigned(any(), any());
+    }
 
     @Test
     void should_throwException_when_addTaskToNonExistentProject() {
         // given
-        when(projectRepository.findById(1L)).thenReturn(Optional.empty());
+        when(projectRepository.existsById(1L)).thenReturn(false);
 
         // when
-        Exception exception = assertThrows(ProjectNotFoundException.class, () -> projectService.addTaskToProject(1L, 1L));
+        Exception exception = assertThrows(ProjectNotFoundException.class, () -> projectService.addTaskToProject(1L, 1L, true));
 
         // then
         assertEquals("Project not found with ID: 1", exception.getMessage());
-        verify(projectRepository, times(1)).findById(1L);
-        verify(taskRepository, never()).findById(anyLong());
+        verify(taskRepository, never()).findStatesByIdIn(any());
+    }
+
+    @Test
+    void should_throwException_when_addMissingTaskToProject() {
+        // given
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findStatesByIdIn(List.of(1L))).thenReturn(List.of());
+
+        // when & then
+        assertThrows(TaskNotFoundException.class, () -> projectService.addTaskToProject(1L, 1L, true));
     }
 
     @Test
     void should_throwException_when_removeTaskNotInProject() {
         // given
-        Task sampleTask = new Task(1L, "Sample Task", "Task Description", Priority.HIGH, Status.TODO, LocalDate.now(), null);
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(sampleProject));
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(sampleTask));
+        TaskResponseDTO unassigned = new TaskResponseDTO(1L, "Sample Task", null, Priority.HIGH, Status.TODO, null, null);
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findStatesByIdIn(List.of(1L))).thenReturn(List.of(unassigned));
 
         // when
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> projectService.removeTaskFromProject(1L, 1L));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> projectService.removeTaskFromProject(1L, 1L, true));
 
         // then
         assertEquals("Task is not assigned to this project.", exception.getMessage());
-        verify(projectRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).findById(1L);
+        verify(taskRepository, never()).updateFieldsByVersions(any(), any());
     }
 
+    @Test
+    void should_returnProjectsInRequestedOrder_and_reportMissingIds_when_fetchingByIds() {
+        // given
+        Project other = new Project(2L, "Other Project", null, new ArrayList<>());
+        when(projectRepository.findAllWithTasksByIdIn(List.of(2L, 9L, 1L))).thenReturn(List.of(sampleProject, other));
 
+        // when
+        BatchFetchResponseDTO<ProjectResponseDTO> result = projectService.getProjectsByIds(List.of(2L, 9L, 1L), true);
 
-
+        // then
+        assertEquals(List.of(2L, 1L), result.getItems().stream().map(ProjectResponseDTO::getId).toList());
+        assertEquals(List.of(9L), result.getMissingIds());
+    }
 }
@@ -1,5 +1,6 @@
 package pl.kul.taskmanager.service;
 
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,19 +11,39 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import pl.kul.taskmanager.cache.CacheEvictor;
+import pl.kul.taskmanager.dto.BatchFetchResponseDTO;
+import pl.kul.taskmanager.dto.BulkTaskResponseDTO;
+import pl.kul.taskmanager.dto.TaskCursor;
+import pl.kul.taskmanager.dto.TaskPatchDTO;
 import pl.kul.taskmanager.dto.TaskRequestDTO;
 import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.TaskSliceResponseDTO;
+import pl.kul.taskmanager.dto.TaskTransitionRequestDTO;
+import pl.kul.taskmanager.dto.TaskTransitionResponseDTO;
+import pl.kul.taskmanager.dto.VersionStampDTO;
+import pl.kul.taskmanager.events.ChangeFeed;
+import pl.kul.taskmanager.exception.PreconditionFailedException;
 import pl.kul.taskmanager.exception.TaskNotFoundException;
+import pl.kul.taskmanager.mapper.TaskMapper;
 import pl.kul.taskmanager.model.Priority;
 import pl.kul.taskmanager.model.Status;
 import pl.kul.taskmanager.model.Task;
 import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.search.FullTextIndex;
+import pl.kul.taskmanager.search.IndexedType;
+import pl.kul.taskmanager.stats.TaskStatistics;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +55,18 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private FullTextIndex fullTextIndex;
+
+    @Mock
+    private CacheEvictor cacheEvictor;
+
+    @Mock
+    private TaskStatistics taskStatistics;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -145,6 +178,43 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).findById(1L);
     }
 
+    @Test
+    @DisplayName("should_returnRequestedFieldsOnly_when_sparseTaskRequested")
+    void should_returnRequestedFieldsOnly_when_sparseTaskRequested() {
+        // Given
+        List<String> fields = List.of("id", "status");
+        Map<String, Object> row = Map.of("id", 1L, "status", Status.TODO);
+        when(taskRepository.findFields(any(), eq(fields), any())).thenReturn(new PageImpl<>(List.of(row)));
+
+        // When
+        Map<String, Object> response = taskService.getTaskById(1L, fields);
+
+        // Then
+        assertEquals(row, response);
+        verify(taskRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("should_throwException_when_sparseTaskDoesNotExist")
+    void should_throwException_when_sparseTaskDoesNotExist() {
+        // Given
+        when(taskRepository.findFields(any(), any(), any())).thenReturn(Page.empty());
+
+        // When & Then
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(1L, List.of("id")));
+    }
+
+    @Test
+    @DisplayName("should_throwException_when_versionStampRequestedForMissingTask")
+    void should_throwException_when_versionStampRequestedForMissingTask() {
+        // Given
+        when(taskRepository.findVersionStamp(any())).thenReturn(new VersionStampDTO(0L, null, null));
+
+        // When & Then
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTaskVersionStamp(1L));
+        verify(taskRepository, never()).findById(anyLong());
+    }
+
     @Test
     @DisplayName("should_updateTask_when_taskExistsAndValidDtoProvided")
     void should_updateTask_when_taskExistsAndValidDtoProvided() {
@@ -187,6 +257,9 @@ class TaskServiceTest {
         assertNotNull(responseDTO);
         assertEquals(updatedTask.getId(), responseDTO.getId());
         assertEquals(updatedTask.getName(), responseDTO.getName());
+        verify(taskStatistics, times(1)).taskUpdated(
+                argThat(before -> before.getStatus() == Status.TODO && before.getPriority() == Priority.MEDIUM),
+                eq(responseDTO));
     }
 
     @Test
@@ -205,26 +278,28 @@ class TaskServiceTest {
     @DisplayName("should_deleteTask_when_taskExists")
     void should_deleteTask_when_taskExists() {
         // Given
-        when(taskRepository.existsById(1L)).thenReturn(true);
+        TaskResponseDTO state = TaskMapper.toDTO(task);
+        when(taskRepository.findStateById(1L)).thenReturn(Optional.of(state));
         doNothing().when(taskRepository).deleteById(1L);
 
         // When
         taskService.deleteTask(1L);
 
         // Then
-        verify(taskRepository, times(1)).existsById(1L);
+        verify(taskRepository, times(1)).findStateById(1L);
         verify(taskRepository, times(1)).deleteById(1L);
+        verify(taskStatistics, times(1)).taskDeleted(state);
     }
 
     @Test
     @DisplayName("should_throwException_when_deleteTaskAnd_taskDoesNotExist")
     void should_throwException_when_deleteTaskAnd_taskDoesNotExist() {
         // Given
-        when(taskRepository.existsById(1L)).thenReturn(false);
+        when(taskRepository.findStateById(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(1L));
-        verify(taskRepository, times(1)).existsById(1L);
+        verify(taskRepository, times(1)).findStateById(1L);
         verify(taskRepository, never()).deleteById(anyLong());
     }
 
@@ -667,4 +742,455 @@ class TaskServiceTest {
         assertNotNull(responsePage);
         assertTrue(responsePage.isEmpty());
     }
+
+    @Test
+    @DisplayName("should_returnNextCursor_when_moreTasksThanSliceSize")
+    void should_returnNextCursor_when_moreTasksThanSliceSize() {
+        // Given
+        Task nextTask = new Task(2L, "Next Task", null, Priority.LOW, Status.TODO, null, null);
+        when(taskRepository.findBy(any(Specification.class), any())).thenReturn(List.of(task, nextTask));
+
+        // When
+        TaskSliceResponseDTO slice = taskService.searchTasksAfter(
+                null, null, null, null, null, null, null, null,
+                "dueDate", Sort.Direction.ASC, null, 1
+        );
+
+        // Then
+        verify(taskRepository, never()).count(any(Specification.class));
+        assertEquals(1, slice.getContent().size());
+        assertTrue(slice.isHasNext());
+        TaskCursor cursor = TaskCursor.decode(slice.getNextCursor());
+        assertEquals("dueDate", cursor.getSortBy());
+        assertEquals(task.getDueDate(), cursor.getValue());
+        assertEquals(task.getId(), cursor.getId());
+    }
+
+    @Test
+    @DisplayName("should_returnLastSlice_when_cursorProvided")
+    void should_returnLastSlice_when_cursorProvided() {
+        // Given
+        String after = new TaskCursor("id", Sort.Direction.ASC, 1L, 1L).encode();
+        Task nextTask = new Task(2L, "Next Task", null, Priority.LOW, Status.TODO, null, null);
+        when(taskRepository.findBy(any(Specification.class), any())).thenReturn(List.of(nextTask));
+
+        // When
+        TaskSliceResponseDTO slice = taskService.searchTasksAfter(
+                Status.TODO, null, null, null, null, null, null, null,
+                "id", Sort.Direction.ASC, after, 10
+        );
+
+        // Then
+        assertEquals(1, slice.getSize());
+        assertFalse(slice.isHasNext());
+        assertNull(slice.getNextCursor());
+        assertEquals(2L, slice.getContent().getFirst().getId());
+    }
+
+    @Test
+    @DisplayName("should_throwIllegalArgumentException_when_cursorDoesNotMatchSort")
+    void should_throwIllegalArgumentException_when_cursorDoesNotMatchSort() {
+        // Given
+        String after = new TaskCursor("name", Sort.Direction.ASC, "Test Task", 1L).encode();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasksAfter(
+                null, null, null, null, null, null, null, null,
+                "id", Sort.Direction.ASC, after, 10
+        ));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should_throwIllegalArgumentException_when_cursorPageSizeOutOfRange")
+    void should_throwIllegalArgumentException_when_cursorPageSizeOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasksAfter(
+                null, null, null, null, null, null, null, null,
+                "id", Sort.Direction.ASC, null, 0
+        ));
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasksAfter(
+                null, null, null, null, null, null, null, null,
+                "id", Sort.Direction.ASC, null, 1_001
+        ));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should_throwIllegalArgumentException_when_cursorIsMalformed")
+    void should_throwIllegalArgumentException_when_cursorIsMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasksAfter(
+                null, null, null, null, null, null, null, null,
+                "id", Sort.Direction.ASC, "not-a-cursor", 10
+        ));
+    }
+
+    @Test
+    @DisplayName("should_streamTasksToConsumer_when_exportingTasks")
+    void should_streamTasksToConsumer_when_exportingTasks() {
+        // Given
+        TaskResponseDTO exported = new TaskResponseDTO(1L, "Test Task", null, Priority.MEDIUM, Status.TODO, null, null);
+        when(taskRepository.streamAll(any(Specification.class), anyInt())).thenReturn(Stream.of(exported));
+        List<TaskResponseDTO> received = new ArrayList<>();
+
+        // When
+        taskService.exportTasks(Status.TODO, null, null, null, null, null, null, null, received::add);
+
+        // Then
+        verify(taskRepository, never()).findAll();
+        assertEquals(List.of(exported), received);
+    }
+
+    @Test
+    @DisplayName("should_saveValidTasksInOneBatch_and_reportInvalidOnes_when_bulkCreating")
+    void should_saveValidTasksInOneBatch_and_reportInvalidOnes_when_bulkCreating() {
+        // Given
+        TaskService bulkService = new TaskService(taskRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), fullTextIndex, cacheEvictor, taskStatistics, changeFeed);
+        TaskRequestDTO invalid = new TaskRequestDTO("No", null, Priority.LOW, null, null, null);
+        FullTextIndex.Batch batch = mock(FullTextIndex.Batch.class);
+        when(fullTextIndex.batch()).thenReturn(batch);
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).setId(100L + i);
+            }
+            return tasks;
+        });
+
+        // When
+        BulkTaskResponseDTO response = bulkService.createTasks(Arrays.asList(taskRequestDTO, invalid, null, taskRequestDTO));
+
+        // Then
+        verify(taskRepository, times(1)).saveAll(argThat(tasks -> ((List<Task>) tasks).size() == 2));
+        verify(taskRepository, never()).save(any(Task.class));
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getFailed());
+        assertEquals(100L, response.getResults().get(0).getId());
+        assertNull(response.getResults().get(1).getId());
+        List<String> errors = response.getResults().get(1).getErrors();
+        assertEquals(2, errors.size());
+        assertEquals("name: Name must be between 3 and 100 characters", errors.get(0));
+        assertTrue(errors.get(1).startsWith("status: "));
+        assertEquals(List.of("Task must not be null"), response.getResults().get(2).getErrors());
+        assertEquals(101L, response.getResults().get(3).getId());
+        verify(batch, times(2)).index(eq(IndexedType.TASK), anyLong(), eq("Test Task"), eq("This is a test task"));
+        verify(batch, times(1)).close();
+    }
+
+    @Test
+    @DisplayName("should_throwIllegalArgumentException_when_bulkRequestTooLarge")
+    void should_throwIllegalArgumentException_when_bulkRequestTooLarge() {
+        // Given
+        List<TaskRequestDTO> dtos = Collections.nCopies(10_001, taskRequestDTO);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(dtos));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("should_returnTasksInRankOrder_when_searchingByText")
+    void should_returnTasksInRankOrder_when_searchingByText() {
+        // Given
+        Task other = new Task(2L, "Other Task", null, Priority.LOW, Status.TODO, null, null);
+        when(fullTextIndex.search(IndexedType.TASK, "test", 10, FullTextIndex.NAME, FullTextIndex.DESCRIPTION))
+                .thenReturn(List.of(2L, 3L, 1L));
+        when(taskRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(List.of(task, other));
+
+        // When
+        List<TaskResponseDTO> result = taskService.searchTasksByText("test", 10);
+
+        // Then
+        assertEquals(List.of(2L, 1L), result.stream().map(TaskResponseDTO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should_restrictSearchToIndexedIds_when_fullTextRoutingEnabled")
+    void should_restrictSearchToIndexedIds_when_fullTextRoutingEnabled() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        when(fullTextIndex.isRoutingEnabled()).thenReturn(true);
+        when(fullTextIndex.searchAll(eq(IndexedType.TASK), eq("test"), anyInt(), eq(FullTextIndex.NAME), eq(FullTextIndex.DESCRIPTION)))
+                .thenReturn(Optional.of(List.of(1L)));
+        when(taskRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(List.of(task), pageable, 1));
+
+        // When
+        Page<TaskResponseDTO> result = taskService.searchTasks(null, null, null, null, null, "test", null, null, pageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        verify(fullTextIndex, times(1)).searchAll(eq(IndexedType.TASK), eq("test"), anyInt(), eq(FullTextIndex.NAME), eq(FullTextIndex.DESCRIPTION));
+    }
+
+    @Test
+    @DisplayName("should_useLikeFilters_when_fullTextRoutingDisabled")
+    void should_useLikeFilters_when_fullTextRoutingDisabled() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        when(taskRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(List.of(task), pageable, 1));
+
+        // When
+        Page<TaskResponseDTO> result = taskService.searchTasks(null, null, null, null, null, "elease", "Test", null, pageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        verify(fullTextIndex, never()).searchAll(any(), any(), anyInt(), any(String[].class));
+    }
+
+    @Test
+    @DisplayName("should_evictTaskAndItsProject_when_deletingTask")
+    void should_evictTaskAndItsProject_when_deletingTask() {
+        // Given
+        when(taskRepository.findStateById(1L)).thenReturn(Optional.of(
+                new TaskResponseDTO(1L, "Test Task", null, Priority.MEDIUM, Status.TODO, null, 10L)));
+
+        // When
+        taskService.deleteTask(1L);
+
+        // Then
+        verify(taskRepository, times(1)).deleteById(1L);
+        verify(cacheEvictor, times(1)).evictTask(1L);
+        verify(cacheEvictor, times(1)).evictProject(10L);
+    }
+
+    @Test
+    @DisplayName("should_returnTasksInRequestedOrder_and_reportMissingIds_when_fetchingByIds")
+    void should_returnTasksInRequestedOrder_and_reportMissingIds_when_fetchingByIds() {
+        // Given
+        TaskResponseDTO first = new TaskResponseDTO(1L, "First", null, Priority.LOW, Status.TODO, null, null);
+        TaskResponseDTO third = new TaskResponseDTO(3L, "Third", null, Priority.LOW, Status.TODO, null, null);
+        when(taskRepository.findStatesByIdIn(List.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+
+        // When
+        BatchFetchResponseDTO<TaskResponseDTO> result = taskService.getTasksByIds(List.of(3L, 2L, 1L, 3L));
+
+        // Then
+        assertEquals(List.of(third, first), result.getItems());
+        assertEquals(List.of(2L), result.getMissingIds());
+    }
+
+    @Test
+    @DisplayName("should_queryIdsInChunks_when_fetchingManyIds")
+    void should_queryIdsInChunks_when_fetchingManyIds() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 2_500; id++) {
+            ids.add(id);
+        }
+
+        // When
+        BatchFetchResponseDTO<TaskResponseDTO> result = taskService.getTasksByIds(ids);
+
+        // Then
+        verify(taskRepository, times(3)).findStatesByIdIn(anyCollection());
+        assertEquals(2_500, result.getMissingIds().size());
+    }
+
+    @Test
+    @DisplayName("should_updateOnlySuppliedFields_withoutLoadingEntity_when_patchingTask")
+    void should_updateOnlySuppliedFields_withoutLoadingEntity_when_patchingTask() {
+        // Given
+        TaskService patchService = patchService();
+        TaskPatchDTO patch = new TaskPatchDTO();
+        patch.setStatus(Status.DONE);
+        TaskResponseDTO before = new TaskResponseDTO(1L, "Test Task", null, Priority.MEDIUM, Status.TODO, null, 10L);
+        when(taskRepository.findStateById(1L)).thenReturn(Optional.of(before));
+        when(taskRepository.updateFields(1L, null, Map.of(TaskPatchDTO.STATUS, Status.DONE))).thenReturn(1);
+
+        // When
+        TaskResponseDTO patched = patchService.patchTask(1L, patch, null);
+
+        // Then
+        assertEquals(Status.DONE, patched.getStatus());
+        assertEquals("Test Task", patched.getName());
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(fullTextIndex, never()).index(any(), anyLong(), any(), any());
+        verify(cacheEvictor, times(1)).evictTask(1L);
+        verify(cacheEvictor, times(1)).evictProject(10L);
+        verify(changeFeed, times(1)).taskUpdated(before, patched);
+    }
+
+    @Test
+    @DisplayName("should_failPrecondition_when_taskChangesBetweenCheckAndUpdate")
+    void should_failPrecondition_when_taskChangesBetweenCheckAndUpdate() {
+        // Given
+        TaskService patchService = patchService();
+        TaskPatchDTO patch = new TaskPatchDTO();
+        patch.setPriority(Priority.HIGH);
+        VersionStampDTO stamp = new VersionStampDTO(1L, 4L, null);
+        when(taskRepository.findVersionStamp(any())).thenReturn(stamp);
+        when(taskRepository.findStateById(1L)).thenReturn(Optional.of(TaskMapper.toDTO(task)));
+        when(taskRepository.updateFields(1L, 4L, Map.of(TaskPatchDTO.PRIORITY, Priority.HIGH))).thenReturn(0);
+
+        // When & Then
+        assertThrows(PreconditionFailedException.class, () -> patchService.patchTask(1L, patch, stamp.toETag(1L, MediaType.APPLICATION_JSON)));
+        verify(taskRepository, times(1)).updateFields(1L, 4L, Map.of(TaskPatchDTO.PRIORITY, Priority.HIGH));
+        verify(changeFeed, never()).taskUpdated(any(), any());
+    }
+
+    @Test
+    @DisplayName("should_retryWithFreshState_when_taskChangesBetweenReadAndUpdate")
+    void should_retryWithFreshState_when_taskChangesBetweenReadAndUpdate() {
+        // Given
+        TaskService patchService = patchService();
+        TaskPatchDTO patch = new TaskPatchDTO();
+        patch.setStatus(Status.DONE);
+        Map<String, Object> changes = Map.of(TaskPatchDTO.STATUS, Status.DONE);
+        TaskResponseDTO stale = new TaskResponseDTO(1L, "Test Task", null, Priority.MEDIUM, Status.TODO, null, 10L, 2L);
+        TaskResponseDTO fresh = new TaskResponseDTO(1L, "Test Task", null, Priority.MEDIUM, Status.IN_PROGRESS, null,
+                10L, 3L);
+        when(taskRepository.findStateById(1L)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(taskRepository.updateFields(1L, 2L, changes)).thenReturn(0);
+        when(taskRepository.updateFields(1L, 3L, changes)).thenReturn(1);
+
+        // When
+        TaskResponseDTO patched = patchService.patchTask(1L, patch, null);
+
+        // Then
+        assertEquals(Status.DONE, patched.getStatus());
+        verify(taskRepository, times(2)).findStateById(1L);
+        verify(taskStatistics, times(1)).taskUpdated(fresh, patched);
+        verify(changeFeed, times(1)).taskUpdated(fresh, patched);
+        verify(changeFeed, never()).taskUpdated(eq(stale), any());
+    }
+
+    @Test
+    @DisplayName("should_reportConflict_when_everyPatchAttemptLosesTheRace")
+    void should_reportConflict_when_everyPatchAttemptLosesTheRace() {
+        // Given
+        TaskService patchService = patchService();
+        TaskPatchDTO patch = new TaskPatchDTO();
+        patch.setPriority(Priority.HIGH);
+        TaskResponseDTO state = new TaskResponseDTO(1L, "Test Task", null, Priority.MEDIUM, Status.TODO, null, 10L, 2L);
+        when(taskRepository.findStateById(1L)).thenReturn(Optional.of(state));
+        when(taskRepository.updateFields(1L, 2L, Map.of(TaskPatchDTO.PRIORITY, Priority.HIGH))).thenReturn(0);
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> patchService.patchTask(1L, patch, null));
+        verify(taskRepository, times(3)).updateFields(1L, 2L, Map.of(TaskPatchDTO.PRIORITY, Priority.HIGH));
+        verify(taskStatistics, never()).taskUpdated(any(), any());
+        verify(changeFeed, never()).taskUpdated(any(), any());
+    }
+
+    @Test
+    @DisplayName("should_rejectPatch_when_ifMatchIsStale")
+    void should_rejectPatch_when_ifMatchIsStale() {
+        // Given
+        TaskService patchService = patchService();
+        TaskPatchDTO patch = new TaskPatchDTO();
+        patch.setStatus(Status.DONE);
+        when(taskRepository.findVersionStamp(any())).thenReturn(new VersionStampDTO(1L, 5L, null));
+
+        // When & Then
+        assertThrows(PreconditionFailedException.class, () -> patchService.patchTask(1L, patch, "\"stale\""));
+        verify(taskRepository, never()).updateFields(anyLong(), any(), anyMap());
+    }
+
+    @Test
+    @DisplayName("should_rejectPatch_when_fieldsInvalidOrUnsupported")
+    void should_rejectPatch_when_fieldsInvalidOrUnsupported() {
+        // Given
+        TaskService patchService = patchService();
+        TaskPatchDTO clearsName = new TaskPatchDTO();
+        clearsName.setName(null);
+        TaskPatchDTO movesProject = new TaskPatchDTO();
+        movesProject.setUnsupportedField("projectId", 5);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> patchService.patchTask(1L, clearsName, null));
+        assertThrows(IllegalArgumentException.class, () -> patchService.patchTask(1L, movesProject, null));
+        verify(taskRepository, never()).updateFields(anyLong(), any(), anyMap());
+    }
+
+    @Test
+    @DisplayName("should_updateOnlyTasksNotAtTarget_and_publishChanges_when_transitioningByIds")
+    void should_updateOnlyTasksNotAtTarget_and_publishChanges_when_transitioningByIds() {
+        // Given
+        TaskResponseDTO open = new TaskResponseDTO(1L, "Open", null, Priority.LOW, Status.TODO, null, 10L, 3L);
+        TaskResponseDTO done = new TaskResponseDTO(2L, "Done", null, Priority.LOW, Status.DONE, null, 20L, 0L);
+        when(taskRepository.findStatesByIdIn(List.of(1L, 2L, 99L))).thenReturn(List.of(open, done));
+        when(taskRepository.updateFieldsByVersions(Map.of(1L, 3L), Map.of(TaskPatchDTO.STATUS, Status.DONE)))
+                .thenReturn(1);
+        TaskTransitionRequestDTO request = new TaskTransitionRequestDTO();
+        request.setIds(List.of(1L, 2L, 99L));
+        request.setTargetStatus(Status.DONE);
+
+        // When
+        TaskTransitionResponseDTO result = taskService.transitionTasks(request);
+
+        // Then
+        assertEquals(new TaskTransitionResponseDTO(2, 1, 1, List.of(99L)), result);
+        TaskResponseDTO after = new TaskResponseDTO(1L, "Open", null, Priority.LOW, Status.DONE, null, 10L, 3L);
+        verify(cacheEvictor, times(1)).evictTasks(List.of(1L));
+        verify(cacheEvictor, times(1)).evictProject(10L);
+        verify(cacheEvictor, never()).evictProject(20L);
+        verify(taskStatistics, times(1)).taskUpdated(open, after);
+        verify(changeFeed, times(1)).taskUpdated(open, after);
+    }
+
+    @Test
+    @DisplayName("should_updateInChunks_when_filterMatchesManyTasks")
+    void should_updateInChunks_when_filterMatchesManyTasks() {
+        // Given
+        List<TaskResponseDTO> matched = new ArrayList<>();
+        for (long id = 1; id <= 2_500; id++) {
+            matched.add(new TaskResponseDTO(id, "Task " + id, null, Priority.LOW, Status.TODO, null, null, 0L));
+        }
+        when(taskRepository.streamAll(any(), anyInt())).thenReturn(matched.stream());
+        when(taskRepository.updateFieldsByVersions(anyMap(), anyMap()))
+                .thenAnswer(invocation -> invocation.<Map<Long, Long>>getArgument(0).size());
+        TaskTransitionRequestDTO request = new TaskTransitionRequestDTO();
+        request.setStatus(Status.TODO);
+        request.setTargetStatus(Status.IN_PROGRESS);
+        request.setTargetPriority(Priority.HIGH);
+
+        // When
+        TaskTransitionResponseDTO result = taskService.transitionTasks(request);
+
+        // Then
+        assertEquals(2_500, result.getUpdated());
+        verify(taskRepository, times(3)).updateFieldsByVersions(anyMap(),
+                eq(Map.of(TaskPatchDTO.STATUS, Status.IN_PROGRESS, TaskPatchDTO.PRIORITY, Priority.HIGH)));
+    }
+
+    @Test
+    @DisplayName("should_rollBackTransition_when_taskChangesBetweenReadAndUpdate")
+    void should_rollBackTransition_when_taskChangesBetweenReadAndUpdate() {
+        // Given
+        TaskResponseDTO first = new TaskResponseDTO(1L, "First", null, Priority.LOW, Status.TODO, null, 10L, 0L);
+        TaskResponseDTO second = new TaskResponseDTO(2L, "Second", null, Priority.LOW, Status.TODO, null, 10L, 4L);
+        when(taskRepository.findStatesByIdIn(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(taskRepository.updateFieldsByVersions(Map.of(1L, 0L, 2L, 4L), Map.of(TaskPatchDTO.STATUS, Status.DONE)))
+                .thenReturn(1);
+        TaskTransitionRequestDTO request = new TaskTransitionRequestDTO();
+        request.setIds(List.of(1L, 2L));
+        request.setTargetStatus(Status.DONE);
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> taskService.transitionTasks(request));
+        verify(cacheEvictor, never()).evictTasks(any());
+        verify(taskStatistics, never()).taskUpdated(any(), any());
+        verify(changeFeed, never()).taskUpdated(any(), any());
+    }
+
+    @Test
+    @DisplayName("should_rejectTransition_when_selectionOrTargetMissing")
+    void should_rejectTransition_when_selectionOrTargetMissing() {
+        // Given
+        TaskTransitionRequestDTO withoutTarget = new TaskTransitionRequestDTO();
+        withoutTarget.setIds(List.of(1L));
+        TaskTransitionRequestDTO withoutSelection = new TaskTransitionRequestDTO();
+        withoutSelection.setTargetStatus(Status.DONE);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> taskService.transitionTasks(withoutTarget));
+        assertThrows(IllegalArgumentException.class, () -> taskService.transitionTasks(withoutSelection));
+        verify(taskRepository, never()).updateFieldsByVersions(anyMap(), anyMap());
+    }
+
+    private TaskService patchService() {
+        return new TaskService(taskRepository, Validation.buildDefaultValidatorFactory().getValidator(),
+                fullTextIndex, cacheEvictor, taskStatistics, changeFeed);
+    }
 }
@@ -4,17 +4,28 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import pl.kul.taskmanager.cache.CacheEvictor;
+import pl.kul.taskmanager.dto.TaskSliceResponseDTO;
+import pl.kul.taskmanager.events.ChangeFeed;
 import pl.kul.taskmanager.model.Priority;
 import pl.kul.taskmanager.model.Project;
 import pl.kul.taskmanager.model.Status;
 import pl.kul.taskmanager.model.Task;
 import pl.kul.taskmanager.repository.ProjectRepository;
 import pl.kul.taskmanager.repository.TaskRepository;
+import pl.kul.taskmanager.search.FullTextIndex;
+import pl.kul.taskmanager.service.TaskService;
+import pl.kul.taskmanager.stats.TaskStatistics;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 @DataJpaTest
 class TaskSpecificationTest {
@@ -154,4 +165,50 @@ class TaskSpecificationTest {
         assertEquals(project.getId(), results.getFirst().getProject().getId());
     }
 
+    @Test
+    void should_returnEveryTaskOnceInOrder_when_walkingDueDateCursorPagesWithNullDueDates() {
+        // given
+        LocalDate today = LocalDate.now();
+        List<LocalDate> dueDates = Arrays.asList(today.plusDays(5), null, today, null, today.plusDays(10), today,
+                null, today.plusDays(5));
+        for (int i = 0; i < dueDates.size(); i++) {
+            taskRepository.save(new Task(null, "Paged " + i, null, Priority.LOW, Status.TODO, dueDates.get(i), null));
+        }
+        TaskService taskService = new TaskService(taskRepository, null, mock(FullTextIndex.class),
+                mock(CacheEvictor.class), mock(TaskStatistics.class), mock(ChangeFeed.class));
+        List<Task> tasks = taskRepository.findAll();
+        Comparator<LocalDate> earliestFirst = Comparator.nullsFirst(Comparator.naturalOrder());
+        Comparator<LocalDate> latestFirst = Comparator.nullsLast(Comparator.reverseOrder());
+        List<Long> ascending = tasks.stream()
+                .sorted(Comparator.comparing(Task::getDueDate, earliestFirst).thenComparing(Task::getId))
+                .map(Task::getId)
+                .toList();
+        List<Long> descending = tasks.stream()
+                .sorted(Comparator.comparing(Task::getDueDate, latestFirst)
+                        .thenComparing(Task::getId, Comparator.reverseOrder()))
+                .map(Task::getId)
+                .toList();
+
+        // when
+        List<Long> walkedAscending = walkDueDatePages(taskService, Sort.Direction.ASC);
+        List<Long> walkedDescending = walkDueDatePages(taskService, Sort.Direction.DESC);
+
+        // then
+        assertEquals(10, tasks.size());
+        assertEquals(ascending, walkedAscending);
+        assertEquals(descending, walkedDescending);
+    }
+
+    // Small pages put page boundaries inside runs of equal and null due dates
+    private static List<Long> walkDueDatePages(TaskService taskService, Sort.Direction direction) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            TaskSliceResponseDTO slice = taskService.searchTasksAfter(null, null, null, null, null, null, null, null,
+                    "dueDate", direction, after, 3);
+            slice.getContent().forEach(task -> ids.add(task.getId()));
+            after = slice.getNextCursor();
+        } while (after != null);
+        return ids;
+    }
 }
\ No newline at end of file
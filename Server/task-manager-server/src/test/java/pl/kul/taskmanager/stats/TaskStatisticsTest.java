@@ -0,0 +1,220 @@
+package pl.kul.taskmanager.stats;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.kul.taskmanager.dto.ProjectCompletionDTO;
+import pl.kul.taskmanager.dto.TaskCountDTO;
+import pl.kul.taskmanager.dto.TaskResponseDTO;
+import pl.kul.taskmanager.dto.TaskStatisticsDTO;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskStatisticsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+
+    private TaskStatistics taskStatistics;
+
+    @BeforeEach
+    void setUp() {
+        taskStatistics = new TaskStatistics(Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    void should_countByStatusAndPriority_when_tasksCreated() {
+        // when
+        taskStatistics.taskCreated(task(1L, Status.TODO, Priority.HIGH, null, null));
+        taskStatistics.taskCreated(task(2L, Status.TODO, Priority.HIGH, null, null));
+        taskStatistics.taskCreated(task(3L, Status.DONE, Priority.LOW, null, null));
+
+        // then
+        TaskStatisticsDTO stats = taskStatistics.snapshot();
+        assertEquals(3, stats.getTotalTasks());
+        assertEquals(2L, stats.getTasksByStatusAndPriority().get(Status.TODO).get(Priority.HIGH));
+        assertEquals(1L, stats.getTasksByStatusAndPriority().get(Status.DONE).get(Priority.LOW));
+        assertEquals(0L, stats.getTasksByStatusAndPriority().get(Status.BLOCKED).get(Priority.CRITICAL));
+    }
+
+    @Test
+    void should_countOnlyOpenTasksDueBeforeToday_asOverdue() {
+        // when
+        taskStatistics.taskCreated(task(1L, Status.TODO, Priority.LOW, TODAY.minusDays(3), null));
+        taskStatistics.taskCreated(task(2L, Status.DONE, Priority.LOW, TODAY.minusDays(3), null));
+        taskStatistics.taskCreated(task(3L, Status.BLOCKED, Priority.LOW, TODAY, null));
+
+        // then
+        assertEquals(1, taskStatistics.snapshot().getOverdueTasks());
+    }
+
+    @Test
+    void should_updateCompletionRatio_when_taskFinishedAndMoved() {
+        // given
+        TaskResponseDTO open = task(1L, Status.TODO, Priority.LOW, TODAY.minusDays(1), 10L);
+        taskStatistics.projectCreated(20L);
+        taskStatistics.taskCreated(open);
+        taskStatistics.taskCreated(task(2L, Status.TODO, Priority.LOW, null, 10L));
+
+        // when
+        TaskResponseDTO done = task(1L, Status.DONE, Priority.LOW, TODAY.minusDays(1), 10L);
+        taskStatistics.taskUpdated(open, done);
+        taskStatistics.taskUpdated(task(2L, Status.TODO, Priority.LOW, null, 10L), task(2L, Status.TODO, Priority.LOW, null, 20L));
+
+        // then
+        TaskStatisticsDTO stats = taskStatistics.snapshot();
+        assertEquals(0, stats.getOverdueTasks());
+        assertEquals(List.of(new ProjectCompletionDTO(10L, 1, 1, 1.0), new ProjectCompletionDTO(20L, 1, 0, 0.0)),
+                stats.getProjects());
+    }
+
+    @Test
+    void should_dropProjectAndItsTasks_when_projectDeleted() {
+        // given
+        TaskResponseDTO task = task(1L, Status.IN_PROGRESS, Priority.MEDIUM, null, 10L);
+        taskStatistics.taskCreated(task);
+
+        // when
+        taskStatistics.projectDeleted(10L, List.of(task));
+
+        // then
+        TaskStatisticsDTO stats = taskStatistics.snapshot();
+        assertEquals(0, stats.getTotalTasks());
+        assertTrue(stats.getProjects().isEmpty());
+    }
+
+    @Test
+    void should_replaceDriftedCounters_when_rebuilt() {
+        // given
+        taskStatistics.taskCreated(task(1L, Status.TODO, Priority.LOW, null, 10L));
+
+        // when
+        taskStatistics.rebuild(List.of(
+                new TaskCountDTO(Status.DONE, Priority.HIGH, TODAY.minusDays(1), 30L, 4L),
+                new TaskCountDTO(Status.TODO, Priority.HIGH, TODAY.minusDays(1), null, 2L)
+        ), List.of(30L, 40L));
+
+        // then
+        TaskStatisticsDTO stats = taskStatistics.snapshot();
+        assertEquals(6, stats.getTotalTasks());
+        assertEquals(2, stats.getOverdueTasks());
+        assertEquals(List.of(new ProjectCompletionDTO(30L, 4, 4, 1.0), new ProjectCompletionDTO(40L, 0, 0, 0.0)),
+                stats.getProjects());
+        assertNotNull(stats.getReconciledAt());
+    }
+
+    @Test
+    void should_readAfterInFlightCommit_when_reconcileStartsDuringIt() throws Exception {
+        // given
+        TaskResponseDTO task = task(1L, Status.TODO, Priority.LOW, null, 10L);
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch finishCommit = new CountDownLatch(1);
+        AtomicBoolean read = new AtomicBoolean();
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> writer = threads.submit(() ->
+                    commit(() -> taskStatistics.taskCreated(task), committing, finishCommit));
+            assertTrue(committing.await(5, TimeUnit.SECONDS));
+
+            // when
+            Future<Boolean> reconcile = threads.submit(() -> taskStatistics.reconcile(() -> {
+                read.set(true);
+                // The row committed above is part of what SQL returns
+                return List.of(new TaskCountDTO(Status.TODO, Priority.LOW, null, 10L, 1L));
+            }, () -> List.of(10L), Duration.ofSeconds(5)));
+            Thread.sleep(100);
+            boolean readDuringCommit = read.get();
+            finishCommit.countDown();
+
+            // then
+            writer.get(5, TimeUnit.SECONDS);
+            assertTrue(reconcile.get(5, TimeUnit.SECONDS));
+            assertFalse(readDuringCommit);
+            assertEquals(1, taskStatistics.snapshot().getTotalTasks());
+        } finally {
+            finishCommit.countDown();
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_applyCommitAfterRebuild_when_itCommitsDuringReconcile() throws Exception {
+        // given
+        TaskResponseDTO task = task(1L, Status.TODO, Priority.LOW, null, 10L);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch finishRead = new CountDownLatch(1);
+        CountDownLatch committing = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Boolean> reconcile = threads.submit(() -> taskStatistics.reconcile(() -> {
+                reading.countDown();
+                await(finishRead);
+                // The snapshot was taken before the concurrent commit, so it does not contain the row
+                return List.<TaskCountDTO>of();
+            }, () -> List.of(10L), Duration.ofSeconds(5)));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+            // when
+            Future<?> writer = threads.submit(() -> commit(() -> taskStatistics.taskCreated(task), committing,
+                    new CountDownLatch(0)));
+            Thread.sleep(100);
+            boolean committedDuringRead = writer.isDone();
+            finishRead.countDown();
+
+            // then
+            assertTrue(reconcile.get(5, TimeUnit.SECONDS));
+            writer.get(5, TimeUnit.SECONDS);
+            assertFalse(committedDuringRead);
+            assertEquals(1, taskStatistics.snapshot().getTotalTasks());
+        } finally {
+            finishRead.countDown();
+            threads.shutdownNow();
+        }
+    }
+
+    // Drives the synchronizations registered by the write through a commit on the calling thread
+    private static void commit(Runnable write, CountDownLatch committing, CountDownLatch finishCommit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            committing.countDown();
+            await(finishCommit);
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static TaskResponseDTO task(Long id, Status status, Priority priority, LocalDate dueDate, Long projectId) {
+        return new TaskResponseDTO(id, "Task " + id, null, priority, status, dueDate, projectId);
+    }
+}
@@ -0,0 +1,66 @@
+package pl.kul.taskmanager.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import pl.kul.taskmanager.model.Priority;
+import pl.kul.taskmanager.model.Status;
+import pl.kul.taskmanager.model.Task;
+import pl.kul.taskmanager.repository.TaskRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compression happens in Tomcat, so it is only visible through a real connector
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:compression")
+class ResponseCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void should_gzipSearchPage_withWeakETag_when_clientAcceptsGzip() throws Exception {
+        // given
+        List<Task> tasks = IntStream.range(0, 500)
+                .mapToObj(i -> new Task(null, "Compressed task " + i, "Description of task " + i, Priority.LOW,
+                        Status.TODO, LocalDate.of(2030, 1, 1).plusDays(i % 365), null))
+                .toList();
+        taskRepository.saveAll(tasks);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/search?size=500"))
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+
+        // when
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        // then
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(response.headers().firstValue("ETag").orElseThrow().startsWith("W/\""));
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            JsonNode page = objectMapper.readTree(body);
+            assertEquals(500, page.get("content").size());
+        }
+    }
+}